@@ -0,0 +1,10 @@
+-- Baseline schema for the embedded database
+CREATE SEQUENCE IF NOT EXISTS user_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS pet_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS adopter_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS adoption_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS Users (user_id INTEGER PRIMARY KEY, username VARCHAR(50) UNIQUE NOT NULL, password VARCHAR(50) NOT NULL, role VARCHAR(20) NOT NULL);
+CREATE TABLE IF NOT EXISTS Pets (pet_id INTEGER PRIMARY KEY, pet_name VARCHAR(50) NOT NULL, species VARCHAR(50) NOT NULL, age INTEGER NOT NULL);
+CREATE TABLE IF NOT EXISTS Adopters (adopter_id INTEGER PRIMARY KEY, first_name VARCHAR(50) NOT NULL, last_name VARCHAR(50) NOT NULL, phone VARCHAR(20) NOT NULL);
+CREATE TABLE IF NOT EXISTS Adoptions (adoption_id INTEGER PRIMARY KEY, adopter_id INTEGER REFERENCES Adopters(adopter_id), pet_id INTEGER REFERENCES Pets(pet_id), adoption_date TIMESTAMP NOT NULL, status VARCHAR(20) NOT NULL);
@@ -0,0 +1,5 @@
+-- Back the NOT EXISTS (... status = 'Completed') checks in the Pets and Adopters lists
+CREATE INDEX IF NOT EXISTS idx_adoptions_pet_status ON Adoptions(pet_id, status);
+CREATE INDEX IF NOT EXISTS idx_adoptions_adopter_status ON Adoptions(adopter_id, status);
+-- Back the status != 'Completed' filter of the Update Status list
+CREATE INDEX IF NOT EXISTS idx_adoptions_status ON Adoptions(status);
@@ -0,0 +1,5 @@
+-- Match the Oracle sequence caching
+ALTER SEQUENCE user_seq CACHE 20;
+ALTER SEQUENCE pet_seq CACHE 100;
+ALTER SEQUENCE adopter_seq CACHE 100;
+ALTER SEQUENCE adoption_seq CACHE 100;
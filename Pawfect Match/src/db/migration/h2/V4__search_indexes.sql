@@ -0,0 +1,23 @@
+-- Upper-cased names for case-insensitive prefix search in the Pets and Adopters tabs
+ALTER TABLE Pets ADD COLUMN IF NOT EXISTS pet_name_key VARCHAR(50) GENERATED ALWAYS AS (UPPER(pet_name));
+ALTER TABLE Adopters ADD COLUMN IF NOT EXISTS first_name_key VARCHAR(50) GENERATED ALWAYS AS (UPPER(first_name));
+ALTER TABLE Adopters ADD COLUMN IF NOT EXISTS last_name_key VARCHAR(50) GENERATED ALWAYS AS (UPPER(last_name));
+CREATE INDEX IF NOT EXISTS idx_pets_name_key ON Pets(pet_name_key, pet_id);
+CREATE INDEX IF NOT EXISTS idx_adopters_first_name_key ON Adopters(first_name_key, adopter_id);
+CREATE INDEX IF NOT EXISTS idx_adopters_last_name_key ON Adopters(last_name_key, adopter_id);
+-- Species and age filters, and the sort orders offered by the column headers (ties broken by id)
+CREATE INDEX IF NOT EXISTS idx_pets_name ON Pets(pet_name, pet_id);
+CREATE INDEX IF NOT EXISTS idx_pets_species ON Pets(species, pet_id);
+CREATE INDEX IF NOT EXISTS idx_pets_age ON Pets(age, pet_id);
+CREATE INDEX IF NOT EXISTS idx_adopters_first_name ON Adopters(first_name, adopter_id);
+CREATE INDEX IF NOT EXISTS idx_adopters_last_name ON Adopters(last_name, adopter_id);
+CREATE INDEX IF NOT EXISTS idx_adopters_phone ON Adopters(phone, adopter_id);
+-- H2 only reads an index forwards, so descending header sorts need their own descending indexes
+CREATE INDEX IF NOT EXISTS idx_pets_id_desc ON Pets(pet_id DESC);
+CREATE INDEX IF NOT EXISTS idx_pets_name_desc ON Pets(pet_name DESC, pet_id DESC);
+CREATE INDEX IF NOT EXISTS idx_pets_species_desc ON Pets(species DESC, pet_id DESC);
+CREATE INDEX IF NOT EXISTS idx_pets_age_desc ON Pets(age DESC, pet_id DESC);
+CREATE INDEX IF NOT EXISTS idx_adopters_id_desc ON Adopters(adopter_id DESC);
+CREATE INDEX IF NOT EXISTS idx_adopters_first_name_desc ON Adopters(first_name DESC, adopter_id DESC);
+CREATE INDEX IF NOT EXISTS idx_adopters_last_name_desc ON Adopters(last_name DESC, adopter_id DESC);
+CREATE INDEX IF NOT EXISTS idx_adopters_phone_desc ON Adopters(phone DESC, adopter_id DESC);
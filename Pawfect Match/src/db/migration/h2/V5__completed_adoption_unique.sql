@@ -0,0 +1,4 @@
+-- At most one completed adoption per pet. The column is NULL for other statuses, and NULLs never collide.
+-- Pets that already have two completed adoptions must be corrected before this migration can run.
+ALTER TABLE Adoptions ADD COLUMN IF NOT EXISTS completed_pet_id INTEGER GENERATED ALWAYS AS (CASE WHEN status = 'Completed' THEN pet_id END);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_adoptions_completed_pet ON Adoptions(completed_pet_id);
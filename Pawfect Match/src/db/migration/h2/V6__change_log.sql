@@ -0,0 +1,5 @@
+-- Rows changed by each mutation, polled by every running instance to refresh just those rows.
+-- A NULL row_id means the whole table changed (CSV import).
+CREATE SEQUENCE IF NOT EXISTS change_seq START WITH 1 INCREMENT BY 1 CACHE 100;
+CREATE TABLE IF NOT EXISTS Change_Log (version BIGINT PRIMARY KEY, table_name VARCHAR(20) NOT NULL, row_id INTEGER, origin VARCHAR(36) NOT NULL, changed_at TIMESTAMP NOT NULL);
+CREATE INDEX IF NOT EXISTS idx_change_log_changed_at ON Change_Log(changed_at);
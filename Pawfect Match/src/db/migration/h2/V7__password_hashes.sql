@@ -0,0 +1,4 @@
+-- Salted PBKDF2 hashes replace plaintext passwords. Existing passwords are hashed on their owner's next login,
+-- which then clears the plaintext column. The username lookup uses the index behind the UNIQUE constraint.
+ALTER TABLE Users ADD COLUMN IF NOT EXISTS password_hash VARCHAR(200);
+ALTER TABLE Users ALTER COLUMN password SET NULL;
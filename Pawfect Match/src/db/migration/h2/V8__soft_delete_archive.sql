@@ -0,0 +1,12 @@
+-- Deleting a pet or adopter only sets deleted_at; the Archiver later moves old deleted rows, and adoptions
+-- completed or cancelled long ago, into the archive tables so the live tables hold current data only.
+ALTER TABLE Pets ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+ALTER TABLE Adopters ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+CREATE INDEX IF NOT EXISTS idx_pets_deleted_at ON Pets(deleted_at);
+CREATE INDEX IF NOT EXISTS idx_adopters_deleted_at ON Adopters(deleted_at);
+-- Old completed and cancelled adoptions
+CREATE INDEX IF NOT EXISTS idx_adoptions_status_date ON Adoptions(status, adoption_date);
+-- History tables without foreign keys, so rows can arrive in any order and outlive their references
+CREATE TABLE IF NOT EXISTS Pets_Archive (pet_id INTEGER PRIMARY KEY, pet_name VARCHAR(50) NOT NULL, species VARCHAR(50) NOT NULL, age INTEGER NOT NULL, deleted_at TIMESTAMP, archived_at TIMESTAMP NOT NULL);
+CREATE TABLE IF NOT EXISTS Adopters_Archive (adopter_id INTEGER PRIMARY KEY, first_name VARCHAR(50) NOT NULL, last_name VARCHAR(50) NOT NULL, phone VARCHAR(20) NOT NULL, deleted_at TIMESTAMP, archived_at TIMESTAMP NOT NULL);
+CREATE TABLE IF NOT EXISTS Adoptions_Archive (adoption_id INTEGER PRIMARY KEY, adopter_id INTEGER NOT NULL, pet_id INTEGER NOT NULL, adoption_date TIMESTAMP NOT NULL, status VARCHAR(20) NOT NULL, archived_at TIMESTAMP NOT NULL);
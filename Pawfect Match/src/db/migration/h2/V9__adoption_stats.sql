@@ -0,0 +1,19 @@
+-- When an adoption was completed; set by the status change and cleared if the adoption is reopened or cancelled
+ALTER TABLE Adoptions ADD COLUMN IF NOT EXISTS completed_at TIMESTAMP;
+ALTER TABLE Adoptions_Archive ADD COLUMN IF NOT EXISTS completed_at TIMESTAMP;
+-- Adoption counts per species, month of the adoption date and status, kept up to date in the same transaction
+-- as each adoption change so the reports read a few hundred rows however many adoptions there are.
+-- Only completions with a completed_at are timed; adoptions completed before it existed count but are not timed.
+CREATE TABLE IF NOT EXISTS Adoption_Stats (species VARCHAR(50) NOT NULL, adoption_month DATE NOT NULL, status VARCHAR(20) NOT NULL,
+    adoptions INTEGER NOT NULL, timed_completions INTEGER NOT NULL, completion_seconds BIGINT NOT NULL,
+    PRIMARY KEY (species, adoption_month, status));
+-- Archived adoptions keep counting; their pet is live or archived too
+INSERT INTO Adoption_Stats (species, adoption_month, status, adoptions, timed_completions, completion_seconds)
+    SELECT species, adoption_month, status, COUNT(*), 0, 0 FROM (
+        SELECT p.species, CAST(DATE_TRUNC('MONTH', a.adoption_date) AS DATE) AS adoption_month, a.status
+            FROM Adoptions a JOIN Pets p ON p.pet_id = a.pet_id
+        UNION ALL
+        SELECT COALESCE(p.species, pa.species), CAST(DATE_TRUNC('MONTH', a.adoption_date) AS DATE), a.status
+            FROM Adoptions_Archive a LEFT JOIN Pets p ON p.pet_id = a.pet_id LEFT JOIN Pets_Archive pa ON pa.pet_id = a.pet_id
+            WHERE p.pet_id IS NOT NULL OR pa.pet_id IS NOT NULL
+    ) t WHERE NOT EXISTS (SELECT 1 FROM Adoption_Stats) GROUP BY species, adoption_month, status;
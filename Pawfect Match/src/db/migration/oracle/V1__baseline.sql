@@ -0,0 +1,10 @@
+-- Baseline schema. Objects that already exist from earlier releases are kept as they are.
+CREATE SEQUENCE user_seq START WITH 1 INCREMENT BY 1 NOCACHE;
+CREATE SEQUENCE pet_seq START WITH 1 INCREMENT BY 1 NOCACHE;
+CREATE SEQUENCE adopter_seq START WITH 1 INCREMENT BY 1 NOCACHE;
+CREATE SEQUENCE adoption_seq START WITH 1 INCREMENT BY 1 NOCACHE;
+
+CREATE TABLE Users (user_id NUMBER PRIMARY KEY, username VARCHAR2(50) UNIQUE NOT NULL, password VARCHAR2(50) NOT NULL, role VARCHAR2(20) NOT NULL);
+CREATE TABLE Pets (pet_id NUMBER PRIMARY KEY, pet_name VARCHAR2(50) NOT NULL, species VARCHAR2(50) NOT NULL, age NUMBER NOT NULL);
+CREATE TABLE Adopters (adopter_id NUMBER PRIMARY KEY, first_name VARCHAR2(50) NOT NULL, last_name VARCHAR2(50) NOT NULL, phone VARCHAR2(20) NOT NULL);
+CREATE TABLE Adoptions (adoption_id NUMBER PRIMARY KEY, adopter_id NUMBER REFERENCES Adopters(adopter_id), pet_id NUMBER REFERENCES Pets(pet_id), adoption_date DATE NOT NULL, status VARCHAR2(20) NOT NULL);
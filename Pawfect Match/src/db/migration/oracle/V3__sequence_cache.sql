@@ -0,0 +1,5 @@
+-- NOCACHE forced a data dictionary update on every NEXTVAL and serialized concurrent inserts
+ALTER SEQUENCE user_seq CACHE 20;
+ALTER SEQUENCE pet_seq CACHE 100;
+ALTER SEQUENCE adopter_seq CACHE 100;
+ALTER SEQUENCE adoption_seq CACHE 100;
@@ -0,0 +1,14 @@
+-- Upper-cased names for case-insensitive prefix search in the Pets and Adopters tabs
+ALTER TABLE Pets ADD (pet_name_key VARCHAR2(50) GENERATED ALWAYS AS (UPPER(pet_name)) VIRTUAL);
+ALTER TABLE Adopters ADD (first_name_key VARCHAR2(50) GENERATED ALWAYS AS (UPPER(first_name)) VIRTUAL);
+ALTER TABLE Adopters ADD (last_name_key VARCHAR2(50) GENERATED ALWAYS AS (UPPER(last_name)) VIRTUAL);
+CREATE INDEX idx_pets_name_key ON Pets(pet_name_key, pet_id);
+CREATE INDEX idx_adopters_first_name_key ON Adopters(first_name_key, adopter_id);
+CREATE INDEX idx_adopters_last_name_key ON Adopters(last_name_key, adopter_id);
+-- Species and age filters, and the sort orders offered by the column headers (ties broken by id)
+CREATE INDEX idx_pets_name ON Pets(pet_name, pet_id);
+CREATE INDEX idx_pets_species ON Pets(species, pet_id);
+CREATE INDEX idx_pets_age ON Pets(age, pet_id);
+CREATE INDEX idx_adopters_first_name ON Adopters(first_name, adopter_id);
+CREATE INDEX idx_adopters_last_name ON Adopters(last_name, adopter_id);
+CREATE INDEX idx_adopters_phone ON Adopters(phone, adopter_id);
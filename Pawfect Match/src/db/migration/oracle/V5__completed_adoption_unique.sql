@@ -0,0 +1,4 @@
+-- At most one completed adoption per pet. The column is NULL for other statuses, and NULLs never collide.
+-- Pets that already have two completed adoptions must be corrected before this migration can run.
+ALTER TABLE Adoptions ADD (completed_pet_id NUMBER GENERATED ALWAYS AS (CASE WHEN status = 'Completed' THEN pet_id END) VIRTUAL);
+CREATE UNIQUE INDEX ux_adoptions_completed_pet ON Adoptions(completed_pet_id);
@@ -0,0 +1,5 @@
+-- Rows changed by each mutation, polled by every running instance to refresh just those rows.
+-- A NULL row_id means the whole table changed (CSV import). ORDER keeps versions increasing across RAC nodes.
+CREATE SEQUENCE change_seq START WITH 1 INCREMENT BY 1 CACHE 100 ORDER;
+CREATE TABLE Change_Log (version NUMBER PRIMARY KEY, table_name VARCHAR2(20) NOT NULL, row_id NUMBER, origin VARCHAR2(36) NOT NULL, changed_at TIMESTAMP NOT NULL);
+CREATE INDEX idx_change_log_changed_at ON Change_Log(changed_at);
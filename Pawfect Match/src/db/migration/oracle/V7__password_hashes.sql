@@ -0,0 +1,4 @@
+-- Salted PBKDF2 hashes replace plaintext passwords. Existing passwords are hashed on their owner's next login,
+-- which then clears the plaintext column. The username lookup uses the index behind the UNIQUE constraint.
+ALTER TABLE Users ADD (password_hash VARCHAR2(200));
+ALTER TABLE Users MODIFY (password NULL);
@@ -0,0 +1,13 @@
+-- Deleting a pet or adopter only sets deleted_at; the Archiver later moves old deleted rows, and adoptions
+-- completed or cancelled long ago, into the archive tables so the live tables hold current data only.
+ALTER TABLE Pets ADD (deleted_at TIMESTAMP);
+ALTER TABLE Adopters ADD (deleted_at TIMESTAMP);
+-- Oracle leaves all-NULL keys out of an index, so these hold only the deleted rows the Archiver looks for
+CREATE INDEX idx_pets_deleted_at ON Pets(deleted_at);
+CREATE INDEX idx_adopters_deleted_at ON Adopters(deleted_at);
+-- Old completed and cancelled adoptions
+CREATE INDEX idx_adoptions_status_date ON Adoptions(status, adoption_date);
+-- History tables without foreign keys, so rows can arrive in any order and outlive their references
+CREATE TABLE Pets_Archive (pet_id NUMBER PRIMARY KEY, pet_name VARCHAR2(50) NOT NULL, species VARCHAR2(50) NOT NULL, age NUMBER NOT NULL, deleted_at TIMESTAMP, archived_at TIMESTAMP NOT NULL);
+CREATE TABLE Adopters_Archive (adopter_id NUMBER PRIMARY KEY, first_name VARCHAR2(50) NOT NULL, last_name VARCHAR2(50) NOT NULL, phone VARCHAR2(20) NOT NULL, deleted_at TIMESTAMP, archived_at TIMESTAMP NOT NULL);
+CREATE TABLE Adoptions_Archive (adoption_id NUMBER PRIMARY KEY, adopter_id NUMBER NOT NULL, pet_id NUMBER NOT NULL, adoption_date DATE NOT NULL, status VARCHAR2(20) NOT NULL, archived_at TIMESTAMP NOT NULL);
@@ -0,0 +1,19 @@
+-- When an adoption was completed; set by the status change and cleared if the adoption is reopened or cancelled
+ALTER TABLE Adoptions ADD (completed_at DATE);
+ALTER TABLE Adoptions_Archive ADD (completed_at DATE);
+-- Adoption counts per species, month of the adoption date and status, kept up to date in the same transaction
+-- as each adoption change so the reports read a few hundred rows however many adoptions there are.
+-- Only completions with a completed_at are timed; adoptions completed before it existed count but are not timed.
+CREATE TABLE Adoption_Stats (species VARCHAR2(50) NOT NULL, adoption_month DATE NOT NULL, status VARCHAR2(20) NOT NULL,
+    adoptions NUMBER NOT NULL, timed_completions NUMBER NOT NULL, completion_seconds NUMBER NOT NULL,
+    PRIMARY KEY (species, adoption_month, status));
+-- Archived adoptions keep counting; their pet is live or archived too
+INSERT INTO Adoption_Stats (species, adoption_month, status, adoptions, timed_completions, completion_seconds)
+    SELECT species, adoption_month, status, COUNT(*), 0, 0 FROM (
+        SELECT p.species, TRUNC(a.adoption_date, 'MM') AS adoption_month, a.status
+            FROM Adoptions a JOIN Pets p ON p.pet_id = a.pet_id
+        UNION ALL
+        SELECT COALESCE(p.species, pa.species), TRUNC(a.adoption_date, 'MM'), a.status
+            FROM Adoptions_Archive a LEFT JOIN Pets p ON p.pet_id = a.pet_id LEFT JOIN Pets_Archive pa ON pa.pet_id = a.pet_id
+            WHERE p.pet_id IS NOT NULL OR pa.pet_id IS NOT NULL
+    ) GROUP BY species, adoption_month, status;
@@ -0,0 +1,114 @@
+package petSystem;
+
+import javax.swing.*;
+import javax.swing.table.TableCellEditor;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumn;
+import java.awt.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Renderer and editor for a table column of buttons (Edit, Delete, ...) that act on their row. One set of
+ * buttons paints every row and a second set takes the clicks; each button gets its one listener here, and
+ * the row a click applies to is the row being edited at that moment, so nothing is added per edit and one
+ * click runs its action exactly once. Actions receive the row's key, the value in model column 0.
+ */
+public class ActionColumn extends AbstractCellEditor implements TableCellRenderer, TableCellEditor {
+    private static final int BUTTON_WIDTH = 70;
+
+    public static final class Action {
+        private final String label;
+        private final Color color;
+        private final IntConsumer handler;
+
+        public Action(String label, Color color, IntConsumer handler) {
+            this.label = label;
+            this.color = color;
+            this.handler = handler;
+        }
+    }
+
+    private final JTable table;
+    private final Action[] actions;
+    private final JPanel rendererPanel;
+    private final JButton[] rendererButtons;
+    private final JPanel editorPanel;
+    private int editingRow = -1;
+
+    public ActionColumn(JTable table, Action... actions) {
+        this.table = table;
+        this.actions = actions.clone();
+        rendererPanel = createPanel();
+        editorPanel = createPanel();
+        rendererButtons = new JButton[actions.length];
+        for (int i = 0; i < actions.length; i++) {
+            Action action = actions[i];
+            rendererButtons[i] = createButton(action);
+            rendererPanel.add(rendererButtons[i]);
+            JButton editorButton = createButton(action);
+            editorButton.addActionListener(e -> run(action));
+            editorPanel.add(editorButton);
+        }
+    }
+
+    // Puts the buttons in the table's last column
+    public void install() {
+        TableColumn column = table.getColumnModel().getColumn(table.getColumnCount() - 1);
+        column.setCellRenderer(this);
+        column.setCellEditor(this);
+        column.setPreferredWidth(actions.length * (BUTTON_WIDTH + 4));
+        column.setMinWidth(actions.length * (BUTTON_WIDTH + 4));
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+        rendererPanel.setBackground(isSelected ? table.getSelectionBackground() : table.getBackground());
+        for (int i = 0; i < rendererButtons.length; i++) {
+            rendererButtons[i].setForeground(isSelected ? table.getSelectionForeground() : actions[i].color);
+        }
+        return rendererPanel;
+    }
+
+    @Override
+    public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected, int row, int column) {
+        editingRow = row;
+        editorPanel.setBackground(table.getSelectionBackground());
+        return editorPanel;
+    }
+
+    @Override
+    public Object getCellEditorValue() {
+        return null;
+    }
+
+    private void run(Action action) {
+        int row = editingRow;
+        editingRow = -1;
+        // Editing ends first, so a dialog or table change from the action finds the table at rest
+        fireEditingStopped();
+        if (row < 0 || row >= table.getRowCount()) {
+            return;
+        }
+        Object key = table.getModel().getValueAt(table.convertRowIndexToModel(row), 0);
+        if (key != null) {
+            action.handler.accept(((Number) key).intValue());
+        }
+    }
+
+    private static JPanel createPanel() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER, 2, 0));
+        panel.setOpaque(true);
+        return panel;
+    }
+
+    private static JButton createButton(Action action) {
+        JButton button = new JButton(action.label);
+        button.setOpaque(true);
+        button.setForeground(action.color);
+        button.setPreferredSize(new Dimension(BUTTON_WIDTH, 20));
+        button.setFont(new Font("Arial", Font.PLAIN, 11));
+        button.setBorder(BorderFactory.createRaisedBevelBorder());
+        button.setFocusable(false);
+        return button;
+    }
+}
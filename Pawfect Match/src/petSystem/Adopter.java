@@ -0,0 +1,39 @@
+package petSystem;
+
+public final class Adopter {
+    private final int id;
+    private final String firstName;
+    private final String lastName;
+    private final String phone;
+
+    public Adopter(int id, String firstName, String lastName, String phone) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.phone = phone;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+
+    public Object[] toRow() {
+        return new Object[]{id, firstName, lastName, phone};
+    }
+}
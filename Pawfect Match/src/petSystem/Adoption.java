@@ -0,0 +1,48 @@
+package petSystem;
+
+import java.sql.Timestamp;
+
+public final class Adoption {
+    private final int id;
+    private final int petId;
+    private final int adopterId;
+    private final Timestamp adoptionDate;
+    private final String status;
+
+    public Adoption(int id, int petId, int adopterId, Timestamp adoptionDate, String status) {
+        this.id = id;
+        this.petId = petId;
+        this.adopterId = adopterId;
+        this.adoptionDate = adoptionDate;
+        this.status = status;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getPetId() {
+        return petId;
+    }
+
+    public int getAdopterId() {
+        return adopterId;
+    }
+
+    public Timestamp getAdoptionDate() {
+        return adoptionDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Adoption withStatus(String newStatus) {
+        return new Adoption(id, petId, adopterId, adoptionDate, newStatus);
+    }
+
+    // Row in the same column order as the Adoptions and Update Status tables
+    public Object[] toRow(Pet pet, Adopter adopter) {
+        return new Object[]{id, petId, pet.getName(), adopterId, adopter.getFullName(), adoptionDate, status};
+    }
+}
@@ -0,0 +1,281 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adoption changes that must not race between terminals. Each one validates and writes in a single
+ * transaction that first locks the pet's row (SELECT ... FOR UPDATE), so two desks adopting or completing
+ * the same pet queue up instead of both passing the check. The unique index on completed adoptions per pet
+ * backs this up. Deadlocks and lock wait timeouts roll the transaction back and run it again after a short
+ * randomized backoff. Every change also brings Adoption_Stats up to date before it commits.
+ */
+public class AdoptionService {
+    private static final long BASE_BACKOFF_MILLIS = 10;
+
+    private interface Work<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    private final ConnectionSource connections;
+    private final SqlDialect dialect;
+    private final ChangeFeed changeFeed;
+    private final AdoptionStats stats;
+    private final String updateCompletedAt;
+    private final int maxAttempts;
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong caughtByIndex = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public AdoptionService(ConnectionSource connections, SqlDialect dialect, ShelterRepository repository, int maxAttempts) {
+        this.connections = connections;
+        this.dialect = dialect;
+        this.changeFeed = repository.getChangeFeed();
+        this.stats = new AdoptionStats(dialect);
+        this.updateCompletedAt = String.format(Queries.UPDATE_COMPLETED_AT, dialect.currentTimestamp());
+        this.maxAttempts = maxAttempts;
+    }
+
+    // Returns the new pending adoption, or null when the pet or adopter does not exist or was deleted, or the pet is already adopted
+    public Adoption adopt(int petId, int adopterId) throws SQLException {
+        return inTransaction(conn -> {
+            // The adopter is locked too, after the pet as the Archiver does, so it cannot be archived underneath
+            if (!exists(conn, Queries.LOCK_LIVE_PET + dialect.forUpdate(), petId) || !exists(conn, Queries.LOCK_LIVE_ADOPTER + dialect.forUpdate(), adopterId)
+                    || completedAdoptions(conn, petId, -1) > 0) {
+                return null;
+            }
+            String query = "INSERT INTO Adoptions (adoption_id, adopter_id, pet_id, adoption_date, status) VALUES ("
+                    + dialect.nextValue("adoption_seq") + ", ?, ?, " + dialect.currentTimestamp() + ", 'Pending')";
+            try (PreparedStatement stmt = conn.prepareStatement(query, new String[]{"ADOPTION_ID", "ADOPTION_DATE"})) {
+                stmt.setInt(1, adopterId);
+                stmt.setInt(2, petId);
+                stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new SQLException("No generated key returned");
+                    }
+                    Adoption added = new Adoption(keys.getInt(1), petId, adopterId, keys.getTimestamp(2), "Pending");
+                    changeFeed.record(conn, ChangeFeed.ADOPTIONS, added.getId());
+                    stats.update(conn, Collections.emptyMap(), stats.read(conn, new int[]{added.getId()}));
+                    return added;
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the adoption with its new status, or null when no adoption has that id, its pet was deleted, or it
+     * would become a second completed adoption of its pet.
+     */
+    public Adoption updateStatus(int adoptionId, String status) throws SQLException {
+        return inTransaction(conn -> {
+            Adoption current = findAdoption(conn, adoptionId, "");
+            // Pet first, then adoption: the same lock order as adopt(), so the two cannot deadlock each other
+            if (current == null || !lockPet(conn, current.getPetId())) {
+                return null;
+            }
+            current = findAdoption(conn, adoptionId, dialect.forUpdate());
+            if (current == null || "Completed".equals(status) && completedAdoptions(conn, current.getPetId(), adoptionId) > 0) {
+                return null;
+            }
+            int[] ids = {adoptionId};
+            Map<AdoptionStats.Key, long[]> before = stats.read(conn, ids);
+            try (PreparedStatement stmt = conn.prepareStatement(Queries.UPDATE_ADOPTION_STATUS)) {
+                stmt.setString(1, status);
+                stmt.setInt(2, adoptionId);
+                stmt.executeUpdate();
+            }
+            Queries.forEachChunk(conn, updateCompletedAt, null, ids, null);
+            stats.update(conn, before, stats.read(conn, ids));
+            recordChanges(conn, Collections.singletonList(current));
+            return current.withStatus(status);
+        });
+    }
+
+    /**
+     * Sets the status of many adoptions in one transaction, with one statement per few hundred ids. Returns
+     * the adoptions that changed. Ids that no longer exist or whose pet was deleted are skipped, and so are
+     * completions that would give a pet a second completed adoption; of several selected adoptions of one pet
+     * only the lowest id is completed. When the unique index catches a completion that raced past the check, nothing changes
+     * and the list is empty.
+     */
+    public List<Adoption> updateStatuses(Collection<Integer> adoptionIds, String status) throws SQLException {
+        int[] ids = adoptionIds.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+        if (ids.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Adoption> updated = inTransaction(conn -> {
+            int[] petIds = findAdoptions(conn, ids, "").stream().mapToInt(Adoption::getPetId).distinct().sorted().toArray();
+            Set<Integer> livePets = new HashSet<>();
+            Queries.forEachChunk(conn, Queries.LOCK_LIVE_PETS + dialect.forUpdate(), null, petIds, rs -> livePets.add(rs.getInt(1)));
+            List<Adoption> current = findAdoptions(conn, ids, dialect.forUpdate());
+            // A deleted pet's adoptions wait, unchanged, for the Archiver
+            current.removeIf(adoption -> !livePets.contains(adoption.getPetId()));
+            List<Adoption> accepted = new ArrayList<>();
+            if ("Completed".equals(status)) {
+                Map<Integer, Integer> completedByPet = new HashMap<>();
+                Queries.forEachChunk(conn, Queries.COMPLETED_FOR_PETS, null, petIds,
+                        rs -> completedByPet.put(rs.getInt(1), rs.getInt(2)));
+                Set<Integer> completedNow = new HashSet<>();
+                for (Adoption adoption : current) {
+                    Integer completed = completedByPet.get(adoption.getPetId());
+                    if ((completed == null || completed == adoption.getId()) && completedNow.add(adoption.getPetId())) {
+                        accepted.add(adoption);
+                    }
+                }
+            } else {
+                accepted.addAll(current);
+            }
+            int[] acceptedIds = accepted.stream().mapToInt(Adoption::getId).toArray();
+            Map<AdoptionStats.Key, long[]> before = stats.read(conn, acceptedIds);
+            Queries.forEachChunk(conn, Queries.UPDATE_ADOPTION_STATUSES, status, acceptedIds, null);
+            Queries.forEachChunk(conn, updateCompletedAt, null, acceptedIds, null);
+            stats.update(conn, before, stats.read(conn, acceptedIds));
+            recordChanges(conn, accepted);
+            List<Adoption> result = new ArrayList<>();
+            for (Adoption adoption : accepted) {
+                result.add(adoption.withStatus(status));
+            }
+            return result;
+        });
+        if (updated == null) {
+            // The unique index rejected a completion another terminal committed meanwhile; nothing was written
+            return Collections.emptyList();
+        }
+        return updated;
+    }
+
+    // Publishes the transaction outcomes, shown on the Diagnostics tab
+    public void registerMetrics(Metrics metrics) {
+        metrics.gauge("adoptions.committed", committed::get);
+        metrics.gauge("adoptions.rejected", rejected::get);
+        metrics.gauge("adoptions.retries", retries::get);
+        metrics.gauge("adoptions.failed", failed::get);
+    }
+
+    public String getStats() {
+        long transactions = committed.get() + rejected.get();
+        return String.format("adoptions: %d committed, %d rejected (%d by the unique index), %d failed, %d retries, avg %.2f ms, max %.2f ms",
+                committed.get(), rejected.get(), caughtByIndex.get(), failed.get(), retries.get(),
+                transactions == 0 ? 0.0 : totalNanos.get() / 1_000_000.0 / transactions, maxNanos.get() / 1_000_000.0);
+    }
+
+    private <T> T inTransaction(Work<T> work) throws SQLException {
+        long started = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = runOnce(work);
+                long elapsed = System.nanoTime() - started;
+                totalNanos.addAndGet(elapsed);
+                maxNanos.accumulateAndGet(elapsed, Math::max);
+                (result == null ? rejected : committed).incrementAndGet();
+                return result;
+            } catch (SQLException e) {
+                if (dialect.isUniqueViolation(e)) {
+                    // Another terminal completed the pet between our check and write; only the index noticed
+                    rejected.incrementAndGet();
+                    caughtByIndex.incrementAndGet();
+                    return null;
+                }
+                if (!dialect.isRetryable(e) || attempt == maxAttempts) {
+                    failed.incrementAndGet();
+                    throw e;
+                }
+                retries.incrementAndGet();
+                backoff(attempt);
+            }
+        }
+    }
+
+    private <T> T runOnce(Work<T> work) throws SQLException {
+        try (Connection conn = connections.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                if (result == null) {
+                    conn.rollback();
+                } else {
+                    conn.commit();
+                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static void backoff(int attempt) throws SQLException {
+        long limit = BASE_BACKOFF_MILLIS << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(limit / 2, limit + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while retrying an adoption", e);
+        }
+    }
+
+    // A status change can also move the pet and adopter in or out of the Pets and Adopters lists
+    private void recordChanges(Connection conn, List<Adoption> changed) throws SQLException {
+        if (changed.isEmpty()) {
+            return;
+        }
+        changeFeed.record(conn, ChangeFeed.ADOPTIONS, changed.stream().mapToInt(Adoption::getId).toArray());
+        changeFeed.record(conn, ChangeFeed.PETS, changed.stream().mapToInt(Adoption::getPetId).distinct().toArray());
+        changeFeed.record(conn, ChangeFeed.ADOPTERS, changed.stream().mapToInt(Adoption::getAdopterId).distinct().toArray());
+    }
+
+    private boolean lockPet(Connection conn, int petId) throws SQLException {
+        return exists(conn, Queries.LOCK_LIVE_PET + dialect.forUpdate(), petId);
+    }
+
+    private static boolean exists(Connection conn, String query, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static int completedAdoptions(Connection conn, int petId, int exceptAdoptionId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(Queries.COUNT_OTHER_COMPLETED_FOR_PET)) {
+            stmt.setInt(1, petId);
+            stmt.setInt(2, exceptAdoptionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static List<Adoption> findAdoptions(Connection conn, int[] adoptionIds, String lockClause) throws SQLException {
+        List<Adoption> adoptions = new ArrayList<>();
+        Queries.forEachChunk(conn, Queries.FIND_ADOPTIONS + lockClause, null, adoptionIds, rs -> adoptions.add(new Adoption(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getTimestamp(4), rs.getString(5))));
+        return adoptions;
+    }
+
+    private static Adoption findAdoption(Connection conn, int adoptionId, String lockClause) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(Queries.FIND_ADOPTION + lockClause)) {
+            stmt.setInt(1, adoptionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? new Adoption(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getTimestamp(4), rs.getString(5)) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps Adoption_Stats in step with the adoptions it counts. A change reads what the affected adoptions
+ * contribute before and after it, inside the same transaction, and adds the difference to the few rows whose
+ * key changed. Rows are updated in key order, so two transactions touching the same rows lock them in the
+ * same order and cannot deadlock over them.
+ */
+class AdoptionStats {
+    static final class Key {
+        final String species;
+        final Date month;
+        final String status;
+
+        Key(String species, Date month, String status) {
+            this.species = species;
+            this.month = month;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return species.equals(other.species) && month.equals(other.month) && status.equals(other.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(species, month, status);
+        }
+    }
+
+    private static final Comparator<Key> ORDER = Comparator.<Key, String>comparing(k -> k.species)
+            .thenComparing(k -> k.month).thenComparing(k -> k.status);
+
+    // Adoptions, timed completions and completion seconds
+    private static final int FIGURES = 3;
+
+    private final SqlDialect dialect;
+
+    AdoptionStats(SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    // What the adoptions add to each row as they stand now; adoptions of unknown pets add nothing
+    Map<Key, long[]> read(Connection conn, int[] adoptionIds) throws SQLException {
+        Map<Key, long[]> contributions = new TreeMap<>(ORDER);
+        Queries.forEachChunk(conn, Queries.ADOPTION_STATS_SOURCES, null, adoptionIds, rs -> {
+            Timestamp adopted = rs.getTimestamp(2);
+            Timestamp completed = rs.getTimestamp(4);
+            long[] figures = contributions.computeIfAbsent(new Key(rs.getString(1), monthOf(adopted), rs.getString(3)), k -> new long[FIGURES]);
+            figures[0]++;
+            if (completed != null) {
+                figures[1]++;
+                figures[2] += Math.max(0, (completed.getTime() - adopted.getTime()) / 1000);
+            }
+        });
+        return contributions;
+    }
+
+    // Moves the rows from the before contributions to the after ones; rows whose figures did not change are not touched
+    void update(Connection conn, Map<Key, long[]> before, Map<Key, long[]> after) throws SQLException {
+        Set<Key> keys = new HashSet<>(before.keySet());
+        keys.addAll(after.keySet());
+        Map<Key, long[]> deltas = new TreeMap<>(ORDER);
+        for (Key key : keys) {
+            long[] delta = new long[FIGURES];
+            long[] was = before.get(key);
+            long[] now = after.get(key);
+            boolean changed = false;
+            for (int i = 0; i < FIGURES; i++) {
+                delta[i] = (now == null ? 0 : now[i]) - (was == null ? 0 : was[i]);
+                changed |= delta[i] != 0;
+            }
+            if (changed) {
+                deltas.put(key, delta);
+            }
+        }
+        for (Map.Entry<Key, long[]> entry : deltas.entrySet()) {
+            add(conn, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void add(Connection conn, Key key, long[] delta) throws SQLException {
+        if (execute(conn, Queries.ADD_TO_ADOPTION_STATS, key, delta) > 0) {
+            return;
+        }
+        try {
+            execute(conn, Queries.INSERT_ADOPTION_STATS, key, delta);
+        } catch (SQLException e) {
+            // Another terminal inserted the row first; a failed statement leaves the transaction usable, so add to theirs
+            if (!dialect.isUniqueViolation(e)) {
+                throw e;
+            }
+            execute(conn, Queries.ADD_TO_ADOPTION_STATS, key, delta);
+        }
+    }
+
+    // Both statements bind the three figures, then the key
+    private static int execute(Connection conn, String query, Key key, long[] delta) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            for (int i = 0; i < FIGURES; i++) {
+                stmt.setLong(i + 1, delta[i]);
+            }
+            stmt.setString(FIGURES + 1, key.species);
+            stmt.setDate(FIGURES + 2, key.month);
+            stmt.setString(FIGURES + 3, key.status);
+            return stmt.executeUpdate();
+        }
+    }
+
+    static Date monthOf(Timestamp timestamp) {
+        return Date.valueOf(timestamp.toLocalDateTime().toLocalDate().withDayOfMonth(1));
+    }
+}
@@ -0,0 +1,179 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Moves rows nobody works with any more from the live tables into Pets_Archive, Adopters_Archive and
+ * Adoptions_Archive, so the live tables and their indexes stay the size of the shelter's current work.
+ * A row moves once it is older than the retention period, counted from completion where an adoption has a
+ * completion time:
+ * <ul>
+ * <li>an adopter whose adoptions are all completed or cancelled, all that old, and include a completed one,
+ * together with every adoption of the pets it took home and those pets;</li>
+ * <li>a deleted adopter or pet with no completed adoption, together with its adoptions;</li>
+ * <li>a cancelled adoption.</li>
+ * </ul>
+ * Each batch is one transaction that locks its pets and then its adopters, in the order adoptions lock them,
+ * and records the moved rows in the change log so open tables drop them.
+ */
+public class Archiver {
+    private static final Logger LOG = Logger.getLogger(Archiver.class.getName());
+
+    private final ConnectionSource connections;
+    private final SqlDialect dialect;
+    private final ChangeFeed changeFeed;
+    private final long retentionMillis;
+    private final int batchSize;
+    private ScheduledExecutorService scheduler;
+
+    public Archiver(ConnectionSource connections, SqlDialect dialect, long retentionMillis, int batchSize) {
+        this.connections = connections;
+        this.dialect = dialect;
+        // Its own feed, so this workstation's tables take the moves like anyone else's
+        this.changeFeed = new ChangeFeed(connections, dialect);
+        this.retentionMillis = retentionMillis;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public synchronized void start(long intervalMillis) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pawfect-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                archive();
+            } catch (Exception e) {
+                // Whatever was not moved is picked up by the next run
+                LOG.log(Level.WARNING, "Archiving failed", e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // Archives batch after batch until nothing is left to move; returns the number of rows moved
+    public int archive() throws SQLException {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - retentionMillis);
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveBatch(cutoff);
+            total += moved;
+        } while (moved > 0 && !Thread.currentThread().isInterrupted());
+        if (total > 0) {
+            LOG.info("Archived " + total + " rows older than " + cutoff + ".");
+        }
+        return total;
+    }
+
+    private int archiveBatch(Timestamp cutoff) throws SQLException {
+        try (Connection conn = connections.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int moved = moveBatch(conn, cutoff);
+                if (moved > 0) {
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+                return moved;
+            } catch (SQLException e) {
+                conn.rollback();
+                // Another workstation adopting or archiving the same rows; the next run tries again
+                if (dialect.isRetryable(e) || dialect.isUniqueViolation(e)) {
+                    return 0;
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private int moveBatch(Connection conn, Timestamp cutoff) throws SQLException {
+        int[] closedAdopters = select(conn, Queries.ARCHIVABLE_ADOPTERS_WITH_COMPLETED, cutoff, cutoff);
+        int[] deletedAdopters = select(conn, Queries.ARCHIVABLE_DELETED_ADOPTERS, cutoff);
+        int[] deletedPets = select(conn, Queries.ARCHIVABLE_DELETED_PETS, cutoff);
+        int[] pets = union(deletedPets, collect(conn, Queries.PETS_COMPLETED_BY_ADOPTERS, null, closedAdopters));
+        int[] adopters = union(closedAdopters, deletedAdopters);
+
+        Queries.forEachChunk(conn, Queries.LOCK_PETS + dialect.forUpdate(), null, pets, null);
+        Queries.forEachChunk(conn, Queries.LOCK_ADOPTERS + dialect.forUpdate(), null, adopters, null);
+        // An adoption started or completed since the adopters were picked keeps them here; the whole batch waits for the next run
+        if (collect(conn, Queries.OPEN_OR_RECENT_ADOPTIONS_OF_ADOPTERS, cutoff, closedAdopters).length > 0) {
+            return 0;
+        }
+
+        int[] adoptions = union(select(conn, Queries.ARCHIVABLE_CANCELLED_ADOPTIONS, cutoff),
+                union(collect(conn, Queries.ADOPTIONS_OF_PETS, null, pets), collect(conn, Queries.ADOPTIONS_OF_ADOPTERS, null, adopters)));
+        Timestamp archivedAt = new Timestamp(System.currentTimeMillis());
+        int moved = move(conn, Queries.ARCHIVE_ADOPTIONS, Queries.DELETE_ADOPTIONS, archivedAt, adoptions, ChangeFeed.ADOPTIONS);
+        moved += move(conn, Queries.ARCHIVE_PETS, Queries.DELETE_PETS, archivedAt, pets, ChangeFeed.PETS);
+        moved += move(conn, Queries.ARCHIVE_ADOPTERS, Queries.DELETE_ADOPTERS, archivedAt, adopters, ChangeFeed.ADOPTERS);
+        return moved;
+    }
+
+    private int move(Connection conn, String archiveSql, String deleteSql, Timestamp archivedAt, int[] ids, String table) throws SQLException {
+        if (ids.length == 0) {
+            return 0;
+        }
+        Queries.forEachChunk(conn, archiveSql, archivedAt, ids, null);
+        int moved = Queries.forEachChunk(conn, deleteSql, null, ids, null);
+        changeFeed.record(conn, table, ids);
+        return moved;
+    }
+
+    // Runs one of the ARCHIVABLE_ queries: the cutoff parameters, then the batch size
+    private int[] select(Connection conn, String sql, Timestamp... cutoffs) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (Timestamp cutoff : cutoffs) {
+                stmt.setTimestamp(index++, cutoff);
+            }
+            stmt.setInt(index, batchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                Set<Integer> ids = new LinkedHashSet<>();
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+                return ids.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+    }
+
+    private static int[] collect(Connection conn, String template, Object firstParameter, int[] ids) throws SQLException {
+        if (ids.length == 0) {
+            return ids;
+        }
+        Set<Integer> found = new LinkedHashSet<>();
+        Queries.forEachChunk(conn, template, firstParameter, ids, rs -> found.add(rs.getInt(1)));
+        return found.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        return IntStream.concat(Arrays.stream(a), Arrays.stream(b)).distinct().toArray();
+    }
+}
@@ -0,0 +1,141 @@
+package petSystem;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Base64;
+
+/**
+ * Login and registration against the Users table. Passwords are stored as salted PBKDF2-HMAC-SHA256 hashes
+ * in the form {@code pbkdf2-sha256$iterations$salt$hash}; hashing is deliberately slow, so both methods
+ * belong on a worker thread. Rows still holding a plaintext password from before hashing are upgraded on
+ * their first successful login, as are hashes made with fewer iterations than currently configured.
+ */
+public class AuthService {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final ConnectionSource connections;
+    private final SqlDialect dialect;
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+    // Verified against when the username does not exist, so unknown users take as long as wrong passwords
+    private final String dummyHash;
+
+    public AuthService(ConnectionSource connections, SqlDialect dialect, int iterations) {
+        this.connections = connections;
+        this.dialect = dialect;
+        this.iterations = iterations;
+        // Only the cost of checking it matters, so it need not be the hash of anything
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        this.dummyHash = PREFIX + "$" + iterations + "$" + encoder.encodeToString(new byte[SALT_BYTES]) + "$" + encoder.encodeToString(new byte[HASH_BITS / 8]);
+    }
+
+    // Returns the new session, or null when the username or password is wrong
+    public Session login(String username, char[] password) throws SQLException {
+        int userId;
+        String plaintext;
+        String storedHash;
+        String role;
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(Queries.FIND_USER)) {
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    verify(password, dummyHash);
+                    return null;
+                }
+                userId = rs.getInt(1);
+                plaintext = rs.getString(2);
+                storedHash = rs.getString(3);
+                role = rs.getString(4);
+            }
+        }
+        if (storedHash != null) {
+            if (!verify(password, storedHash)) {
+                return null;
+            }
+            if (iterationsOf(storedHash) < iterations) {
+                storeHash(userId, hash(password));
+            }
+        } else {
+            if (plaintext == null || !MessageDigest.isEqual(plaintext.getBytes(StandardCharsets.UTF_8),
+                    new String(password).getBytes(StandardCharsets.UTF_8))) {
+                verify(password, dummyHash);
+                return null;
+            }
+            storeHash(userId, hash(password));
+        }
+        return new Session(userId, username, role);
+    }
+
+    // Returns false when the username is already taken
+    public boolean register(String username, char[] password) throws SQLException {
+        String hash = hash(password);
+        String query = "INSERT INTO Users (user_id, username, password_hash, role) VALUES (" + dialect.nextValue("user_seq") + ", ?, ?, 'user')";
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, username);
+            stmt.setString(2, hash);
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (dialect.isUniqueViolation(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private void storeHash(int userId, String hash) throws SQLException {
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(Queries.UPDATE_PASSWORD_HASH)) {
+            stmt.setString(1, hash);
+            stmt.setInt(2, userId);
+            stmt.executeUpdate();
+        }
+    }
+
+    String hash(char[] password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(derive(password, salt, iterations));
+    }
+
+    static boolean verify(char[] password, String storedHash) {
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return false;
+        }
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] expected = decoder.decode(parts[3]);
+        byte[] actual = derive(password, decoder.decode(parts[2]), Integer.parseInt(parts[1]));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    private static int iterationsOf(String storedHash) {
+        String[] parts = storedHash.split("\\$");
+        return parts.length == 4 ? Integer.parseInt(parts[1]) : 0;
+    }
+
+    private static byte[] derive(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package petSystem;
+
+import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Background image shared by every BackgroundPanel. The JPEG is decoded off the EDT, then scaled once per
+// panel size into a screen-compatible image, so a repaint is a plain copy instead of a rescale.
+public class BackdropRenderer {
+    private static final Logger LOG = Logger.getLogger(BackdropRenderer.class.getName());
+
+    // Panels in the tabbed pane share one size; a few extra entries cover a resize in progress
+    private static final int MAX_CACHED_SIZES = 3;
+
+    private final List<Component> targets = new ArrayList<>();
+    private final Map<Dimension, BufferedImage> scaledBySize = new LinkedHashMap<Dimension, BufferedImage>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Dimension, BufferedImage> eldest) {
+            return size() > MAX_CACHED_SIZES;
+        }
+    };
+    private BufferedImage source;
+
+    public void load(URL resource) {
+        if (resource == null) {
+            LOG.warning("Background image not found, using default background.");
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                BufferedImage image = ImageIO.read(resource);
+                if (image == null) {
+                    throw new IOException("Unsupported image format: " + resource);
+                }
+                SwingUtilities.invokeLater(() -> {
+                    source = image;
+                    scaledBySize.clear();
+                    for (Component target : targets) {
+                        target.repaint();
+                    }
+                });
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Background image could not be read, using default background.", e);
+            }
+        }, "pawfect-image-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Components to repaint once the image has been decoded
+    public void register(Component target) {
+        targets.add(target);
+    }
+
+    public void paint(Graphics g, Component target) {
+        int width = target.getWidth();
+        int height = target.getHeight();
+        if (source == null || width <= 0 || height <= 0) {
+            return;
+        }
+        Dimension size = new Dimension(width, height);
+        BufferedImage scaled = scaledBySize.get(size);
+        if (scaled == null) {
+            scaled = scale(source, target.getGraphicsConfiguration(), width, height);
+            scaledBySize.put(size, scaled);
+        }
+        g.drawImage(scaled, 0, 0, null);
+    }
+
+    private static BufferedImage scale(BufferedImage image, GraphicsConfiguration config, int width, int height) {
+        // Halve first while the image is more than twice the target; a single bilinear pass skips pixels beyond that
+        Image current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        while (currentWidth / 2 >= width && currentHeight / 2 >= height) {
+            currentWidth /= 2;
+            currentHeight /= 2;
+            current = draw(current, null, currentWidth, currentHeight);
+        }
+        return draw(current, config, width, height);
+    }
+
+    private static BufferedImage draw(Image image, GraphicsConfiguration config, int width, int height) {
+        BufferedImage result = config != null
+                ? config.createCompatibleImage(width, height)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = result.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Client-side block allocator in the spirit of hi/lo: one round-trip reserves a whole block of sequence values,
+ * which are then handed out from memory. The values come from the same sequence the single-row inserts use,
+ * so ids from both paths never collide.
+ */
+public class BlockIdAllocator implements IdAllocator {
+
+    private static final class Block {
+        final int[] ids;
+        int next;
+
+        Block(int[] ids) {
+            this.ids = ids;
+        }
+    }
+
+    private final SqlDialect dialect;
+    private final int blockSize;
+    private final Map<String, Block> blocks = new HashMap<>();
+
+    public BlockIdAllocator(SqlDialect dialect, int blockSize) {
+        this.dialect = dialect;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    @Override
+    public synchronized int nextId(Connection conn, String sequence) throws SQLException {
+        Block block = blocks.get(sequence);
+        if (block == null || block.next == block.ids.length) {
+            block = new Block(reserve(conn, sequence));
+            blocks.put(sequence, block);
+        }
+        return block.ids[block.next++];
+    }
+
+    private int[] reserve(Connection conn, String sequence) throws SQLException {
+        int[] ids = new int[blockSize];
+        int count = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(dialect.nextValuesQuery(sequence))) {
+            stmt.setInt(1, blockSize);
+            stmt.setFetchSize(blockSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next() && count < blockSize) {
+                    ids[count++] = rs.getInt(1);
+                }
+            }
+        }
+        if (count == 0) {
+            throw new SQLException("Sequence " + sequence + " returned no values");
+        }
+        return count == blockSize ? ids : Arrays.copyOf(ids, count);
+    }
+}
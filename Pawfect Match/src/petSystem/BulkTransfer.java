@@ -0,0 +1,263 @@
+package petSystem;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming CSV import and export for pets and adopters. Imports read one record at a time, validate it with
+ * the same rules as the entry forms and insert valid rows with JDBC batches, committing once per chunk.
+ * Exports stream the table straight to the file, so neither direction holds a whole table in memory.
+ */
+public class BulkTransfer {
+    private static final int MAX_REPORTED_ERRORS = 50;
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    public interface ProgressListener {
+        void progress(long bytesRead, long totalBytes);
+    }
+
+    public static final class ImportResult {
+        private int imported;
+        private int rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        public int getImported() {
+            return imported;
+        }
+
+        public int getRejected() {
+            return rejected;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        private void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + line + ": " + message);
+            }
+        }
+    }
+
+    private interface RowHandler {
+        String validate(String[] values);
+
+        void bind(PreparedStatement stmt, String[] values, int firstIndex) throws SQLException;
+    }
+
+    private final ConnectionSource connections;
+    private final int chunkSize;
+    private final SqlDialect dialect;
+    private final IdAllocator idAllocator;
+    private final ChangeFeed changeFeed;
+
+    // With a null allocator the inserts take their ids from the sequence inside the INSERT itself
+    public BulkTransfer(ConnectionSource connections, SqlDialect dialect, ChangeFeed changeFeed, int chunkSize, IdAllocator idAllocator) {
+        this.connections = connections;
+        this.dialect = dialect;
+        this.changeFeed = changeFeed;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.idAllocator = idAllocator;
+    }
+
+    public ImportResult importPets(Path file, ProgressListener listener) throws IOException, SQLException {
+        return importRows(file, listener, "INSERT INTO Pets (pet_id, pet_name, species, age) VALUES (%s, ?, ?, ?)", "pet_seq", ChangeFeed.PETS,
+                new String[]{"pet_name", "species", "age"}, new RowHandler() {
+                    @Override
+                    public String validate(String[] values) {
+                        return InputValidation.checkPet(values[0], values[1], values[2]);
+                    }
+
+                    @Override
+                    public void bind(PreparedStatement stmt, String[] values, int firstIndex) throws SQLException {
+                        stmt.setString(firstIndex, values[0].trim());
+                        stmt.setString(firstIndex + 1, values[1].trim());
+                        stmt.setInt(firstIndex + 2, Integer.parseInt(values[2].trim()));
+                    }
+                });
+    }
+
+    public ImportResult importAdopters(Path file, ProgressListener listener) throws IOException, SQLException {
+        return importRows(file, listener, "INSERT INTO Adopters (adopter_id, first_name, last_name, phone) VALUES (%s, ?, ?, ?)", "adopter_seq", ChangeFeed.ADOPTERS,
+                new String[]{"first_name", "last_name", "phone"}, new RowHandler() {
+                    @Override
+                    public String validate(String[] values) {
+                        return InputValidation.checkAdopter(values[0], values[1], values[2]);
+                    }
+
+                    @Override
+                    public void bind(PreparedStatement stmt, String[] values, int firstIndex) throws SQLException {
+                        stmt.setString(firstIndex, values[0].trim());
+                        stmt.setString(firstIndex + 1, values[1].trim());
+                        stmt.setString(firstIndex + 2, values[2].trim());
+                    }
+                });
+    }
+
+    public int exportPets(Path file) throws IOException, SQLException {
+        return exportRows(file, "SELECT pet_id, pet_name, species, age FROM Pets WHERE deleted_at IS NULL ORDER BY pet_id",
+                new String[]{"pet_id", "pet_name", "species", "age"});
+    }
+
+    public int exportAdopters(Path file) throws IOException, SQLException {
+        return exportRows(file, "SELECT adopter_id, first_name, last_name, phone FROM Adopters WHERE deleted_at IS NULL ORDER BY adopter_id",
+                new String[]{"adopter_id", "first_name", "last_name", "phone"});
+    }
+
+    private ImportResult importRows(Path file, ProgressListener listener, String insertTemplate, String sequence, String table,
+                                    String[] columns, RowHandler handler) throws IOException, SQLException {
+        String insertSql = String.format(insertTemplate, idAllocator == null ? dialect.nextValue(sequence) : "?");
+        long totalBytes = Files.size(file);
+        ImportResult result = new ImportResult();
+        try (CountingInputStream counter = new CountingInputStream(Files.newInputStream(file));
+             CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(counter, StandardCharsets.UTF_8)));
+             Connection conn = connections.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+                int[] positions = null;
+                int pending = 0;
+                String[] record;
+                while ((record = csv.readRecord()) != null) {
+                    if (positions == null) {
+                        positions = headerPositions(record, columns);
+                        if (positions != null) {
+                            continue;
+                        }
+                        positions = new int[columns.length];
+                        for (int i = 0; i < positions.length; i++) {
+                            positions[i] = i;
+                        }
+                    }
+                    String[] values = new String[columns.length];
+                    for (int i = 0; i < columns.length; i++) {
+                        values[i] = positions[i] < record.length ? record[positions[i]] : null;
+                    }
+                    String error = handler.validate(values);
+                    if (error != null) {
+                        result.reject(csv.getRecordLine(), error);
+                        continue;
+                    }
+                    if (idAllocator == null) {
+                        handler.bind(stmt, values, 1);
+                    } else {
+                        stmt.setInt(1, idAllocator.nextId(conn, sequence));
+                        handler.bind(stmt, values, 2);
+                    }
+                    stmt.addBatch();
+                    if (++pending == chunkSize) {
+                        stmt.executeBatch();
+                        conn.commit();
+                        result.imported += pending;
+                        pending = 0;
+                        listener.progress(counter.getCount(), totalBytes);
+                    }
+                }
+                if (pending > 0) {
+                    stmt.executeBatch();
+                    result.imported += pending;
+                }
+                // Other workstations reload the table once instead of refreshing every imported row
+                if (result.imported > 0) {
+                    changeFeed.recordReload(conn, table);
+                }
+                conn.commit();
+                listener.progress(totalBytes, totalBytes);
+            } catch (IOException | SQLException | RuntimeException e) {
+                conn.rollback();
+                if (result.imported > 0) {
+                    // The chunks committed so far stay imported
+                    try {
+                        changeFeed.recordReload(conn, table);
+                        conn.commit();
+                    } catch (SQLException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    // Maps the expected columns to their position when the record is a header row, otherwise returns null
+    private int[] headerPositions(String[] record, String[] columns) {
+        int[] positions = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            positions[i] = -1;
+            for (int j = 0; j < record.length; j++) {
+                if (record[j].trim().equalsIgnoreCase(columns[i])) {
+                    positions[i] = j;
+                }
+            }
+            if (positions[i] < 0) {
+                return null;
+            }
+        }
+        return positions;
+    }
+
+    private int exportRows(Path file, String query, String[] header) throws IOException, SQLException {
+        int rows = 0;
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             CsvWriter csv = new CsvWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            stmt.setFetchSize(EXPORT_FETCH_SIZE);
+            csv.writeRecord((Object[]) header);
+            Object[] values = new Object[header.length];
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = rs.getObject(i + 1);
+                    }
+                    csv.writeRecord(values);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps workstations in sync through the Change_Log table. Every mutation records the rows it touched in
+ * its own transaction, numbered from change_seq, and each running instance polls for versions above the
+ * last one it saw and hands the rows other instances changed to a listener.
+ * <p>
+ * Versions are taken before commit, so a slow transaction can commit a lower version after a higher one
+ * was already read. Skipped versions are therefore read again on every poll until they show up or are
+ * older than the gap timeout (rolled back transactions leave gaps that never fill).
+ */
+public class ChangeFeed {
+    public static final String PETS = "Pets";
+    public static final String ADOPTERS = "Adopters";
+    public static final String ADOPTIONS = "Adoptions";
+
+    private static final Logger LOG = Logger.getLogger(ChangeFeed.class.getName());
+    // Past this many changes in one poll the listener is told to reload the tables instead
+    private static final int MAX_CHANGES_PER_POLL = 5000;
+    private static final long GAP_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long RETENTION_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final int POLLS_PER_PRUNE = 1000;
+
+    // The rows one poll found changed by other instances, by table
+    public static final class Changes {
+        private final Map<String, Set<Integer>> rows = new HashMap<>();
+        private final Set<String> reloaded = new HashSet<>();
+
+        public Set<Integer> getRows(String table) {
+            return rows.getOrDefault(table, Collections.emptySet());
+        }
+
+        // True when the table changed too much to refresh row by row, e.g. after a CSV import
+        public boolean isReloaded(String table) {
+            return reloaded.contains(table);
+        }
+
+        public boolean isEmpty() {
+            return rows.isEmpty() && reloaded.isEmpty();
+        }
+
+        private void add(String table, Integer rowId) {
+            if (rowId == null) {
+                reloaded.add(table);
+            } else {
+                rows.computeIfAbsent(table, t -> new LinkedHashSet<>()).add(rowId);
+            }
+        }
+
+        private void reloadAll() {
+            rows.clear();
+            Collections.addAll(reloaded, PETS, ADOPTERS, ADOPTIONS);
+        }
+    }
+
+    private final ConnectionSource connections;
+    private final SqlDialect dialect;
+    private final String origin = UUID.randomUUID().toString();
+    // Versions at or below the watermark have all been read (or given up on); gaps above it are re-read
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private long watermark = -1;
+    private long highest;
+    private int polls;
+    private ScheduledExecutorService scheduler;
+
+    public ChangeFeed(ConnectionSource connections, SqlDialect dialect) {
+        this.connections = connections;
+        this.dialect = dialect;
+    }
+
+    // Records a changed row as part of the caller's transaction
+    public void record(Connection conn, String table, int rowId) throws SQLException {
+        record(conn, table, new int[]{rowId});
+    }
+
+    public void record(Connection conn, String table, int[] rowIds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(insertSql())) {
+            for (int rowId : rowIds) {
+                stmt.setString(1, table);
+                stmt.setInt(2, rowId);
+                stmt.setString(3, origin);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    // Records that the whole table changed, so other instances reload it rather than refresh rows
+    public void recordReload(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(insertSql())) {
+            stmt.setString(1, table);
+            stmt.setNull(2, Types.INTEGER);
+            stmt.setString(3, origin);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Polls every pollMillis on a background thread and passes non-empty results to the listener on that
+     * thread. Changes made before the call are not reported; the tables are loaded fresh at that point.
+     */
+    public synchronized void start(long pollMillis, Consumer<Changes> listener) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pawfect-change-feed");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                Changes changes = poll();
+                if (!changes.isEmpty()) {
+                    listener.accept(changes);
+                }
+            } catch (Exception e) {
+                // Keep polling; the next successful poll picks up where this one stopped
+                LOG.log(Level.WARNING, "Change log poll failed", e);
+            }
+        }, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Reads the changes committed since the previous poll. The first poll only finds the current
+     * version and reports nothing.
+     */
+    public synchronized Changes poll() throws SQLException {
+        Changes changes = new Changes();
+        try (Connection conn = connections.getConnection()) {
+            if (watermark < 0) {
+                highest = watermark = currentVersion(conn);
+                return changes;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(Queries.CHANGES_SINCE)) {
+                stmt.setLong(1, watermark);
+                stmt.setMaxRows(MAX_CHANGES_PER_POLL + 1);
+                stmt.setFetchSize(500);
+                long now = System.nanoTime();
+                int read = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        long version = rs.getLong(1);
+                        if (++read > MAX_CHANGES_PER_POLL) {
+                            changes.reloadAll();
+                            gaps.clear();
+                            highest = currentVersion(conn);
+                            break;
+                        }
+                        if (version <= highest && gaps.remove(version) == null) {
+                            continue;
+                        }
+                        // A jump this large is sequence values lost on a database restart, not open transactions
+                        if (version - highest <= MAX_CHANGES_PER_POLL) {
+                            for (long missing = highest + 1; missing < version; missing++) {
+                                gaps.put(missing, now);
+                            }
+                        }
+                        highest = Math.max(highest, version);
+                        if (!origin.equals(rs.getString(4))) {
+                            long rowId = rs.getLong(3);
+                            changes.add(rs.getString(2), rs.wasNull() ? null : (int) rowId);
+                        }
+                    }
+                }
+                for (Iterator<Long> it = gaps.values().iterator(); it.hasNext(); ) {
+                    if (now - it.next() > GAP_TIMEOUT_NANOS) {
+                        it.remove();
+                    }
+                }
+                watermark = gaps.isEmpty() ? highest : gaps.firstKey() - 1;
+            }
+            if (++polls % POLLS_PER_PRUNE == 0) {
+                prune(conn);
+            }
+        }
+        return changes;
+    }
+
+    private String insertSql() {
+        return "INSERT INTO Change_Log (version, table_name, row_id, origin, changed_at) VALUES ("
+                + dialect.nextValue("change_seq") + ", ?, ?, ?, " + dialect.currentTimestamp() + ")";
+    }
+
+    private static long currentVersion(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(Queries.LATEST_CHANGE);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // Every instance prunes now and then; the deletes are idempotent
+    private static void prune(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(Queries.PRUNE_CHANGES)) {
+            stmt.setTimestamp(1, new Timestamp(System.currentTimeMillis() - RETENTION_MILLIS));
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package petSystem;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * One page of a {@link PagedTableModel}, stored column by column. Integer columns live in plain int arrays
+ * with a null bitmap, so a page of ids and ages holds no boxed values and key lookups read primitives;
+ * every other column holds the values as the driver returned them. Owned by whichever thread holds it:
+ * the worker filling it, then the Event Dispatch Thread.
+ */
+final class ColumnarPage {
+    // Per column: the int values, or null when the column holds objects
+    private final int[][] ints;
+    private final Object[][] objects;
+    // Per int column: the rows that are SQL NULL, allocated on the first one
+    private final BitSet[] nulls;
+    private int size;
+
+    ColumnarPage(boolean[] intColumns, int capacity) {
+        ints = new int[intColumns.length][];
+        objects = new Object[intColumns.length][];
+        nulls = new BitSet[intColumns.length];
+        for (int column = 0; column < intColumns.length; column++) {
+            if (intColumns[column]) {
+                ints[column] = new int[capacity];
+            } else {
+                objects[column] = new Object[capacity];
+            }
+        }
+    }
+
+    private ColumnarPage(ColumnarPage source, int capacity) {
+        int columns = source.ints.length;
+        ints = new int[columns][];
+        objects = new Object[columns][];
+        nulls = new BitSet[columns];
+        for (int column = 0; column < columns; column++) {
+            if (source.ints[column] != null) {
+                ints[column] = new int[capacity];
+            } else {
+                objects[column] = new Object[capacity];
+            }
+            if (source.nulls[column] != null) {
+                nulls[column] = new BitSet();
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    Object get(int row, int column) {
+        int[] values = ints[column];
+        if (values == null) {
+            return objects[column][row];
+        }
+        return isNull(row, column) ? null : values[row];
+    }
+
+    // The value of a numeric column without boxing; the key column is always read this way
+    int getInt(int row, int column) {
+        int[] values = ints[column];
+        return values != null ? values[row] : ((Number) objects[column][row]).intValue();
+    }
+
+    int key(int row) {
+        return getInt(row, 0);
+    }
+
+    boolean holds(int row, int column, int value) {
+        if (ints[column] != null) {
+            return ints[column][row] == value && !isNull(row, column);
+        }
+        Object cell = objects[column][row];
+        return cell instanceof Number && ((Number) cell).intValue() == value;
+    }
+
+    Object[] row(int row) {
+        Object[] values = new Object[ints.length];
+        for (int column = 0; column < values.length; column++) {
+            values[column] = get(row, column);
+        }
+        return values;
+    }
+
+    // Overwrites a row in place with values in the model's row form
+    void set(int row, Object[] values) {
+        for (int column = 0; column < ints.length; column++) {
+            Object value = values[column];
+            if (ints[column] == null) {
+                objects[column][row] = value;
+            } else if (value == null) {
+                setNull(row, column);
+            } else {
+                setInt(row, column, ((Number) value).intValue());
+            }
+        }
+    }
+
+    // Copy with the row inserted at offset, dropping the last row when the page would outgrow maxSize
+    ColumnarPage inserted(int offset, Object[] values, int maxSize) {
+        int newSize = Math.min(size + 1, maxSize);
+        ColumnarPage copy = new ColumnarPage(this, newSize);
+        copy.size = newSize;
+        copyRows(this, 0, copy, 0, offset);
+        copyRows(this, offset, copy, offset + 1, newSize - offset - 1);
+        copy.set(offset, values);
+        return copy;
+    }
+
+    ColumnarPage removed(int offset) {
+        ColumnarPage copy = new ColumnarPage(this, size - 1);
+        copy.size = size - 1;
+        copyRows(this, 0, copy, 0, offset);
+        copyRows(this, offset + 1, copy, offset, size - offset - 1);
+        return copy;
+    }
+
+    // Makes room for one more row and returns its index; used while reading a result set
+    int addRow() {
+        if (size == capacity()) {
+            int grown = Math.max(16, size * 2);
+            for (int column = 0; column < ints.length; column++) {
+                if (ints[column] != null) {
+                    ints[column] = Arrays.copyOf(ints[column], grown);
+                } else {
+                    objects[column] = Arrays.copyOf(objects[column], grown);
+                }
+            }
+        }
+        return size++;
+    }
+
+    void setInt(int row, int column, int value) {
+        ints[column][row] = value;
+        if (nulls[column] != null) {
+            nulls[column].clear(row);
+        }
+    }
+
+    void setNull(int row, int column) {
+        if (nulls[column] == null) {
+            nulls[column] = new BitSet();
+        }
+        nulls[column].set(row);
+        ints[column][row] = 0;
+    }
+
+    void setObject(int row, int column, Object value) {
+        objects[column][row] = value;
+    }
+
+    private boolean isNull(int row, int column) {
+        return nulls[column] != null && nulls[column].get(row);
+    }
+
+    private int capacity() {
+        return ints[0] != null ? ints[0].length : objects[0].length;
+    }
+
+    private static void copyRows(ColumnarPage from, int fromRow, ColumnarPage to, int toRow, int count) {
+        if (count <= 0) {
+            return;
+        }
+        for (int column = 0; column < from.ints.length; column++) {
+            if (from.ints[column] != null) {
+                System.arraycopy(from.ints[column], fromRow, to.ints[column], toRow, count);
+            } else {
+                System.arraycopy(from.objects[column], fromRow, to.objects[column], toRow, count);
+            }
+            BitSet fromNulls = from.nulls[column];
+            if (fromNulls != null) {
+                for (int row = fromNulls.nextSetBit(fromRow); row >= 0 && row < fromRow + count; row = fromNulls.nextSetBit(row + 1)) {
+                    to.nulls[column].set(toRow + row - fromRow);
+                }
+            }
+        }
+    }
+}
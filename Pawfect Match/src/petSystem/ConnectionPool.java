@@ -0,0 +1,383 @@
+package petSystem;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Fixed-bound pool of physical connections. Borrowed connections are proxies whose close() returns them to the pool.
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<Entry> idle = new ArrayDeque<>();
+    private final Set<Entry> borrowed = ConcurrentHashMap.newKeySet();
+    private int totalConnections;
+    private boolean closed;
+
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanosSeen = new AtomicLong();
+    private final AtomicLong waitTimeouts = new AtomicLong();
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final StatementCache.Stats statementStats = new StatementCache.Stats();
+
+    private static class Entry {
+        final Connection physical;
+        final StatementCache statements;
+        long lastUsedMillis = System.currentTimeMillis();
+        long borrowedAtMillis;
+        Throwable borrowSite;
+        boolean leakReported;
+
+        Entry(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+    }
+
+    public ConnectionPool(DatabaseConfig config) throws SQLException {
+        this.url = config.getUrl();
+        this.user = config.getUser();
+        this.password = config.getPassword();
+        this.minSize = Math.max(0, config.getPoolMinSize());
+        this.maxSize = Math.max(Math.max(1, minSize), config.getPoolMaxSize());
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(config.getPoolMaxWaitMillis());
+        this.idleTimeoutMillis = config.getPoolIdleTimeoutMillis();
+        this.leakThresholdMillis = config.getPoolLeakThresholdMillis();
+        this.validationTimeoutSeconds = config.getPoolValidationTimeoutSeconds();
+        this.statementCacheSize = config.getPoolStatementCacheSize();
+
+        for (int i = 0; i < minSize; i++) {
+            Entry entry = openEntry();
+            lock.lock();
+            try {
+                totalConnections++;
+                idle.push(entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pawfect-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000L, Math.min(idleTimeoutMillis, leakThresholdMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + maxWaitNanos;
+        while (true) {
+            Entry entry = null;
+            boolean mayCreate = false;
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    entry = idle.poll();
+                    if (entry != null) {
+                        break;
+                    }
+                    if (totalConnections < maxSize) {
+                        totalConnections++;
+                        mayCreate = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        waitTimeouts.incrementAndGet();
+                        throw new SQLException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)
+                                + " ms waiting for a database connection (" + borrowed.size() + " in use)");
+                    }
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (mayCreate) {
+                try {
+                    entry = openEntry();
+                } catch (SQLException e) {
+                    releaseSlot();
+                    throw e;
+                }
+            } else if (!isValid(entry)) {
+                validationFailures.incrementAndGet();
+                destroy(entry);
+                continue;
+            }
+            return lend(entry, System.nanoTime() - start);
+        }
+    }
+
+    private Connection lend(Entry entry, long waitedNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitedNanos);
+        maxWaitNanosSeen.accumulateAndGet(waitedNanos, Math::max);
+        waitTimes.record(waitedNanos);
+        entry.borrowedAtMillis = System.currentTimeMillis();
+        entry.borrowSite = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+        entry.leakReported = false;
+        borrowed.add(entry);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Handle(entry));
+    }
+
+    private void giveBack(Entry entry) {
+        borrowed.remove(entry);
+        try {
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            entry.physical.clearWarnings();
+        } catch (SQLException e) {
+            destroy(entry);
+            return;
+        }
+        entry.lastUsedMillis = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (closed) {
+                closeQuietly(entry.physical);
+                totalConnections--;
+                return;
+            }
+            idle.push(entry);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isValid(Entry entry) {
+        try {
+            return entry.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Entry openEntry() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, user, password);
+        createdCount.incrementAndGet();
+        return new Entry(connection, new StatementCache(connection, statementCacheSize, statementStats));
+    }
+
+    private void destroy(Entry entry) {
+        borrowed.remove(entry);
+        closeQuietly(entry.physical);
+        releaseSlot();
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Already broken
+        }
+        destroyedCount.incrementAndGet();
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            // Idle list is LIFO, so the longest-idle connections sit at the tail
+            while (totalConnections > minSize && !idle.isEmpty()
+                    && now - idle.peekLast().lastUsedMillis > idleTimeoutMillis) {
+                Entry entry = idle.pollLast();
+                closeQuietly(entry.physical);
+                totalConnections--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        for (Entry entry : borrowed) {
+            if (!entry.leakReported && now - entry.borrowedAtMillis > leakThresholdMillis) {
+                entry.leakReported = true;
+                leaksDetected.incrementAndGet();
+                // The borrow site, when recorded, shows where the connection was taken
+                LOG.log(Level.WARNING, "Possible connection leak: connection held for " + (now - entry.borrowedAtMillis) + " ms", entry.borrowSite);
+            }
+        }
+    }
+
+    public String getStats() {
+        long borrows = borrowCount.get();
+        int idleCount;
+        int total;
+        lock.lock();
+        try {
+            idleCount = idle.size();
+            total = totalConnections;
+        } finally {
+            lock.unlock();
+        }
+        return String.format("connections=%d (idle=%d, in use=%d, max=%d), borrows=%d, avg wait=%.2f ms, max wait=%.2f ms, "
+                        + "timeouts=%d, created=%d, destroyed=%d, validation failures=%d, leaks=%d",
+                total, idleCount, borrowed.size(), maxSize, borrows,
+                borrows == 0 ? 0.0 : totalWaitNanos.get() / 1e6 / borrows, maxWaitNanosSeen.get() / 1e6,
+                waitTimeouts.get(), createdCount.get(), destroyedCount.get(), validationFailures.get(), leaksDetected.get())
+                + "; " + statementStats;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.get();
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanosSeen.get();
+    }
+
+    // Time each borrow waited for a connection, including the time to open one
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    public long getWaitTimeouts() {
+        return waitTimeouts.get();
+    }
+
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    public long getStatementCacheHits() {
+        return statementStats.getHits();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementStats.getMisses();
+    }
+
+    public double getStatementCacheSavedMillis() {
+        return statementStats.getSavedMillis();
+    }
+
+    @Override
+    public void close() {
+        housekeeper.shutdownNow();
+        lock.lock();
+        try {
+            closed = true;
+            while (!idle.isEmpty()) {
+                closeQuietly(idle.poll().physical);
+                totalConnections--;
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Logical connection handed to callers; becomes unusable once closed
+    private class Handle implements InvocationHandler {
+        private Entry entry;
+
+        Handle(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (entry != null) {
+                        Entry returning = entry;
+                        entry = null;
+                        giveBack(returning);
+                    }
+                    return null;
+                case "isClosed":
+                    return entry == null || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (entry == null ? "closed" : entry.physical) + "]";
+                default:
+                    break;
+            }
+            if (entry == null) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            if ("prepareStatement".equals(name)) {
+                PreparedStatement cached = entry.statements.prepare((Connection) proxy, method, args);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public interface ConnectionSource {
+    Connection getConnection() throws SQLException;
+}
@@ -0,0 +1,26 @@
+package petSystem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Flight Recorder event for one background data-access task; free unless a recording has it enabled
+@Name("petSystem.DataAccess")
+@Label("Data Access")
+@Category("Pawfect Match")
+@Description("A database task run by the DataAccessExecutor")
+class DataAccessEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Channel")
+    String channel;
+
+    @Label("Rows Fetched")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,252 @@
+package petSystem;
+
+import javax.swing.SwingUtilities;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work on a small pool of worker threads and hands results back to the Event Dispatch Thread.
+ * Each task is timed under its operation name in {@link Metrics}, along with the rows it fetched, whether it
+ * failed and how long it queued ("executor.queue"), and is reported to Flight Recorder as a DataAccessEvent.
+ */
+public class DataAccessExecutor {
+
+    public interface Task<T> {
+        T run() throws Exception;
+    }
+
+    public interface BusyListener {
+        void busyChanged(String channel, boolean busy);
+    }
+
+    private static final ThreadLocal<CancellableTask> currentTask = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor pool;
+    private final Metrics metrics;
+    private final LatencyHistogram queueTimes;
+    private final Map<String, Future<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pendingByChannel = new HashMap<>();
+    private BusyListener busyListener;
+
+    public DataAccessExecutor(int threads) {
+        this(threads, new Metrics());
+    }
+
+    public DataAccessExecutor(int threads, Metrics metrics) {
+        this.metrics = metrics;
+        this.queueTimes = metrics.timer("executor.queue");
+        AtomicInteger counter = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "pawfect-db-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        metrics.gauge("executor.queued", () -> pool.getQueue().size());
+        metrics.gauge("executor.active", pool::getActiveCount);
+    }
+
+    public void setBusyListener(BusyListener busyListener) {
+        this.busyListener = busyListener;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Like the full submit, timed under the channel's name
+    public <T> void submit(String channel, String key, Task<T> task, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        submit(channel, channel, key, task, onSuccess, onFailure);
+    }
+
+    /**
+     * Runs the task off the EDT. Callbacks are always invoked on the EDT.
+     * When a key is given, submitting another task with the same key cancels the older one
+     * and its result is dropped, so only the newest load ever reaches the UI.
+     * Tasks without a key (mutations) are never cancelled. The task's timings are recorded under operation.
+     */
+    public <T> void submit(String operation, String channel, String key, Task<T> task, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        if (pool.isShutdown()) {
+            // Callbacks still arriving while the window closes
+            return;
+        }
+        markBusy(channel, 1);
+        long submitted = System.nanoTime();
+        CancellableTask future = new CancellableTask() {
+            @Override
+            public void run() {
+                if (isCancelled()) {
+                    return;
+                }
+                DataAccessEvent event = new DataAccessEvent();
+                event.begin();
+                long started = System.nanoTime();
+                queueTimes.record(started - submitted);
+                currentTask.set(this);
+                boolean failed = false;
+                try {
+                    T result = task.run();
+                    publish(() -> {
+                        if (isCurrent(key, this)) {
+                            onSuccess.accept(result);
+                        }
+                    });
+                } catch (Exception e) {
+                    // A superseded load fails with a cancelled statement; that is not an error
+                    failed = !isCancelled();
+                    publish(() -> {
+                        if (isCurrent(key, this)) {
+                            onFailure.accept(e);
+                        }
+                    });
+                } finally {
+                    currentTask.remove();
+                    detach();
+                    record(operation, channel, System.nanoTime() - started, rows, failed, event);
+                }
+                set(null);
+            }
+
+            @Override
+            protected void done() {
+                publish(() -> {
+                    if (key != null) {
+                        inFlight.remove(key, this);
+                    }
+                    markBusy(channel, -1);
+                });
+            }
+        };
+        if (key != null) {
+            Future<?> previous = inFlight.put(key, future);
+            if (previous != null) {
+                previous.cancel(true);
+            }
+        }
+        pool.execute(future);
+    }
+
+    // Cancels the task submitted under the key if it has not finished; its result is dropped
+    public void cancel(String key) {
+        Future<?> future = inFlight.remove(key);
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    // Called from inside a task with the rows it read, so they count towards the task's operation
+    public static void countRows(int rows) {
+        CancellableTask task = currentTask.get();
+        if (task != null) {
+            task.rows += rows;
+        }
+    }
+
+    /**
+     * Called from inside a task: if the task is cancelled or superseded while the statement runs,
+     * the statement is cancelled on the server instead of running to completion.
+     */
+    public static void cancelOnSupersede(Statement statement) throws SQLException {
+        CancellableTask task = currentTask.get();
+        if (task != null) {
+            task.attach(statement);
+        }
+    }
+
+    public void shutdown() {
+        for (String key : inFlight.keySet()) {
+            cancel(key);
+        }
+        pool.shutdownNow();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return pool.awaitTermination(timeout, unit);
+    }
+
+    private void record(String operation, String channel, long elapsedNanos, int rows, boolean failed, DataAccessEvent event) {
+        metrics.timer(operation).record(elapsedNanos);
+        if (rows > 0) {
+            metrics.increment(operation + ".rows", rows);
+        }
+        if (failed) {
+            metrics.increment(operation + ".errors", 1);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.channel = channel;
+            event.rows = rows;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    private static class CancellableTask extends FutureTask<Void> {
+        private Statement statement;
+        // Only touched by the worker running the task
+        int rows;
+
+        CancellableTask() {
+            super(() -> null);
+        }
+
+        synchronized void attach(Statement statement) throws SQLException {
+            this.statement = statement;
+            if (isCancelled()) {
+                statement.cancel();
+            }
+        }
+
+        synchronized void detach() {
+            statement = null;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Statement running;
+            synchronized (this) {
+                running = statement;
+            }
+            if (cancelled && running != null) {
+                try {
+                    running.cancel();
+                } catch (SQLException ignored) {
+                    // Finished or closed in the meantime
+                }
+            }
+            return cancelled;
+        }
+    }
+
+    private boolean isCurrent(String key, Future<?> future) {
+        return key == null || inFlight.get(key) == future;
+    }
+
+    private void publish(Runnable runnable) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            runnable.run();
+        } else {
+            SwingUtilities.invokeLater(runnable);
+        }
+    }
+
+    private void markBusy(String channel, int delta) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> markBusy(channel, delta));
+            return;
+        }
+        int before = pendingByChannel.getOrDefault(channel, 0);
+        int after = Math.max(0, before + delta);
+        pendingByChannel.put(channel, after);
+        if (busyListener != null && (before == 0) != (after == 0)) {
+            busyListener.busyChanged(channel, after > 0);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.logging.Logger;
+
+// The storage backend: the configured dialect, its connection pool and a migrated schema.
+// db.url picks the backend: the shared Oracle server, or a jdbc:h2: URL for an embedded local database.
+public class Database implements ConnectionSource, AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(Database.class.getName());
+
+    private final DatabaseConfig config;
+    private final SqlDialect dialect;
+    private final ConnectionPool pool;
+
+    private Database(DatabaseConfig config, SqlDialect dialect, ConnectionPool pool) {
+        this.config = config;
+        this.dialect = dialect;
+        this.pool = pool;
+    }
+
+    public static Database open(DatabaseConfig config) throws Exception {
+        SqlDialect dialect = SqlDialect.fromConfig(config);
+        Class.forName(config.get("db.driver", dialect.getDriverClass()));
+        ConnectionPool pool = new ConnectionPool(config);
+        Database database = new Database(config, dialect, pool);
+        try {
+            int applied = new SchemaMigrator(database, dialect).migrate();
+            if (applied > 0) {
+                LOG.info("Applied " + applied + " schema migration(s); schema is at version " + SchemaMigrator.latestVersion() + ".");
+            }
+        } catch (Exception e) {
+            pool.close();
+            throw e;
+        }
+        return database;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    public DatabaseConfig getConfig() {
+        return config;
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
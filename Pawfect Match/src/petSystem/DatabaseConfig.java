@@ -0,0 +1,124 @@
+package petSystem;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Database settings read from pawfect.properties (working directory first, then the classpath),
+// with any "pawfect.*" system property taking precedence
+public class DatabaseConfig {
+    private static final Logger LOG = Logger.getLogger(DatabaseConfig.class.getName());
+
+    private static final String FILE_NAME = "pawfect.properties";
+
+    private final Properties properties;
+
+    private DatabaseConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    public static DatabaseConfig load() {
+        Properties properties = new Properties();
+        try (InputStream in = DatabaseConfig.class.getResourceAsStream("/" + FILE_NAME)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Could not read the bundled " + FILE_NAME, e);
+        }
+        Path local = Paths.get(FILE_NAME);
+        if (Files.isRegularFile(local)) {
+            try (InputStream in = new FileInputStream(local.toFile())) {
+                properties.load(in);
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Could not read " + local.toAbsolutePath(), e);
+            }
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("pawfect.")) {
+                properties.setProperty(name.substring("pawfect.".length()), System.getProperty(name));
+            }
+        }
+        return new DatabaseConfig(properties);
+    }
+
+    public static DatabaseConfig of(Properties properties) {
+        return new DatabaseConfig(properties);
+    }
+
+    public String getUrl() {
+        return get("db.url", "jdbc:oracle:thin:@localhost:1521:orcl");
+    }
+
+    public String getUser() {
+        return get("db.user", "system");
+    }
+
+    public String getPassword() {
+        return get("db.password", "password");
+    }
+
+    public int getPoolMinSize() {
+        return getInt("pool.minSize", 2);
+    }
+
+    public int getPoolMaxSize() {
+        return getInt("pool.maxSize", 8);
+    }
+
+    public long getPoolMaxWaitMillis() {
+        return getLong("pool.maxWaitMillis", 10_000L);
+    }
+
+    public long getPoolIdleTimeoutMillis() {
+        return getLong("pool.idleTimeoutMillis", 300_000L);
+    }
+
+    public long getPoolLeakThresholdMillis() {
+        return getLong("pool.leakThresholdMillis", 60_000L);
+    }
+
+    public int getPoolValidationTimeoutSeconds() {
+        return getInt("pool.validationTimeoutSeconds", 2);
+    }
+
+    public int getPoolStatementCacheSize() {
+        return getInt("pool.statementCacheSize", 64);
+    }
+
+    public int getCacheMaxEntries() {
+        return getInt("cache.maxEntries", 10_000);
+    }
+
+    public long getCacheTtlMillis() {
+        return getLong("cache.ttlMillis", 60_000L);
+    }
+
+    public String get(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            LOG.warning("Ignoring invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+}
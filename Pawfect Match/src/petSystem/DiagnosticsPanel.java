@@ -0,0 +1,81 @@
+package petSystem;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.Map;
+
+/**
+ * Live view of a {@link Metrics} registry: one table of latency histograms and one of counters, refreshed
+ * every second while the panel is showing. Reading the snapshots is a few hundred array reads, cheap
+ * enough for the Event Dispatch Thread.
+ */
+public class DiagnosticsPanel extends JPanel {
+    private static final int REFRESH_MILLIS = 1000;
+    private static final String[] TIMER_COLUMNS = {"Operation", "Count", "Mean ms", "p50 ms", "p95 ms", "p99 ms", "Max ms"};
+    private static final String[] COUNTER_COLUMNS = {"Counter", "Value"};
+
+    private final Metrics metrics;
+    private final DefaultTableModel timerModel = readOnlyModel(TIMER_COLUMNS);
+    private final DefaultTableModel counterModel = readOnlyModel(COUNTER_COLUMNS);
+    private final Timer refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+
+    public DiagnosticsPanel(Metrics metrics) {
+        super(new BorderLayout());
+        this.metrics = metrics;
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(new JTable(timerModel)), new JScrollPane(new JTable(counterModel)));
+        split.setResizeWeight(0.7);
+        add(split, BorderLayout.CENTER);
+
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            metrics.reset();
+            refresh();
+        });
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(new JLabel("Times since start or reset; p50/p95/p99 are within 12.5%."));
+        buttonPanel.add(resetButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refresh();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    private void refresh() {
+        if (!isShowing()) {
+            return;
+        }
+        Map<String, LatencyHistogram.Snapshot> timers = metrics.getTimers();
+        timerModel.setRowCount(0);
+        timers.forEach((name, snapshot) -> timerModel.addRow(new Object[]{name, snapshot.getCount(),
+                format(snapshot.getMeanMillis()), format(snapshot.getP50Millis()), format(snapshot.getP95Millis()),
+                format(snapshot.getP99Millis()), format(snapshot.getMaxMillis())}));
+        counterModel.setRowCount(0);
+        metrics.getCounters().forEach((name, value) -> counterModel.addRow(new Object[]{name, value}));
+    }
+
+    private static String format(double millis) {
+        return String.format("%.2f", millis);
+    }
+
+    private static DefaultTableModel readOnlyModel(String[] columns) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+}
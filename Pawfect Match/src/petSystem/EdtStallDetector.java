@@ -0,0 +1,300 @@
+package petSystem;
+
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.InvocationEvent;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Event queue that times every event the Event Dispatch Thread dispatches. When one event keeps the EDT
+ * busy past the threshold, a sampler thread takes the EDT's stack while it is still blocked, and once the
+ * event finishes a few lines naming the event, the component it came from (by its field name in the
+ * registered owners, e.g. loginButton) and the stack go to a rolling log file. Time spent inside a modal
+ * dialog's nested event loop counts against the events dispatched there, not the one that opened it.
+ * Every event's own time goes to the "edt.dispatch" histogram and slow ones to the "edt.slowEvents" counter and
+ * to Flight Recorder as EdtStallEvents. How long the running event has kept the EDT busy so far is the
+ * "edt.busyMillis" gauge, so a stall shows on the Diagnostics tab while it is still going on.
+ */
+public class EdtStallDetector extends EventQueue {
+    private static final Logger LOG = Logger.getLogger(EdtStallDetector.class.getName());
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final int MAX_FRAMES = 12;
+    // The dispatch machinery between the event loop and the code that handles the event
+    private static final String[] PLUMBING = {"java.awt.EventQueue", "java.awt.EventDispatchThread", "java.awt.event.InvocationEvent",
+            "java.security.", "petSystem.EdtStallDetector"};
+    private static final int LOG_FILES = 3;
+
+    // One event being dispatched; the EDT writes it and the sampler reads the volatile fields
+    private static final class Dispatch {
+        final AWTEvent event;
+        final EdtStallEvent stallEvent = new EdtStallEvent();
+        // Start of the current stretch of work, or 0 while a nested event loop waits or dispatches
+        volatile long runningSince;
+        volatile StackTraceElement[] stack;
+        long busyNanos;
+
+        Dispatch(AWTEvent event, long now) {
+            this.event = event;
+            this.runningSince = now;
+            stallEvent.begin();
+        }
+
+        void pause(long now) {
+            long since = runningSince;
+            if (since != 0) {
+                busyNanos += now - since;
+                runningSince = 0;
+            }
+        }
+    }
+
+    private final Metrics metrics;
+    private final LatencyHistogram dispatchTimes;
+    private final long thresholdNanos;
+    private final Path logFile;
+    private final long maxLogBytes;
+    private final List<Object> owners = new ArrayList<>();
+    private final ScheduledExecutorService sampler;
+    private volatile Dispatch current;
+    private volatile Thread dispatchThread;
+
+    public EdtStallDetector(Metrics metrics, long thresholdMillis, Path logFile, long maxLogBytes) {
+        this.metrics = metrics;
+        this.dispatchTimes = metrics.timer("edt.dispatch");
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, thresholdMillis));
+        this.logFile = logFile;
+        this.maxLogBytes = maxLogBytes;
+        sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pawfect-edt-stalls");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1, thresholdMillis / 4);
+        sampler.scheduleWithFixedDelay(this::sample, period, period, TimeUnit.MILLISECONDS);
+        metrics.gauge("edt.busyMillis", () -> {
+            Dispatch dispatch = current;
+            if (dispatch == null) {
+                return 0;
+            }
+            long since = dispatch.runningSince;
+            return TimeUnit.NANOSECONDS.toMillis(dispatch.busyNanos + (since == 0 ? 0 : System.nanoTime() - since));
+        });
+    }
+
+    // Replaces the system event queue; events posted from then on are dispatched and timed here
+    public void install() {
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(this);
+    }
+
+    // Objects whose component fields name the sources of slow events, such as the application frame
+    public synchronized void addOwner(Object owner) {
+        owners.add(owner);
+    }
+
+    public void stop() {
+        sampler.shutdownNow();
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long start = System.nanoTime();
+        Dispatch outer = current;
+        if (outer != null) {
+            outer.pause(start);
+        }
+        Dispatch dispatch = new Dispatch(event, start);
+        dispatchThread = Thread.currentThread();
+        current = dispatch;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long end = System.nanoTime();
+            dispatch.pause(end);
+            current = outer;
+            if (outer != null) {
+                outer.runningSince = end;
+            }
+            finish(dispatch);
+        }
+    }
+
+    // Nested event loops of modal dialogs come here too; the event that opened the dialog is not busy meanwhile
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException {
+        Dispatch waiting = current;
+        if (waiting == null || Thread.currentThread() != dispatchThread) {
+            return super.getNextEvent();
+        }
+        waiting.pause(System.nanoTime());
+        try {
+            return super.getNextEvent();
+        } finally {
+            waiting.runningSince = System.nanoTime();
+        }
+    }
+
+    private void finish(Dispatch dispatch) {
+        dispatchTimes.record(dispatch.busyNanos);
+        if (dispatch.busyNanos < thresholdNanos) {
+            return;
+        }
+        metrics.increment("edt.slowEvents", 1);
+        EdtStallEvent stallEvent = dispatch.stallEvent;
+        stallEvent.end();
+        stallEvent.eventType = dispatch.event.getClass().getSimpleName();
+        stallEvent.busy = dispatch.busyNanos;
+        stallEvent.commit();
+        String time = LocalDateTime.now().format(TIME);
+        // Describing the event and writing the file happen off the EDT
+        sampler.execute(() -> log(time, dispatch));
+    }
+
+    // Takes the EDT's stack once the running event is past the threshold
+    private void sample() {
+        Dispatch dispatch = current;
+        Thread thread = dispatchThread;
+        if (dispatch == null || thread == null || dispatch.stack != null) {
+            return;
+        }
+        long since = dispatch.runningSince;
+        if (since != 0 && dispatch.busyNanos + System.nanoTime() - since >= thresholdNanos) {
+            StackTraceElement[] stack = thread.getStackTrace();
+            if (current == dispatch) {
+                dispatch.stack = stack;
+            }
+        }
+    }
+
+    private void log(String time, Dispatch dispatch) {
+        StringBuilder entry = new StringBuilder();
+        entry.append(time).append(" EDT busy ").append(TimeUnit.NANOSECONDS.toMillis(dispatch.busyNanos))
+                .append(" ms on ").append(describe(dispatch.event)).append(System.lineSeparator());
+        StackTraceElement[] stack = dispatch.stack;
+        if (stack == null) {
+            entry.append("    (finished before its stack was taken)").append(System.lineSeparator());
+        } else {
+            appendStack(entry, stack);
+        }
+        try {
+            write(entry.toString());
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Could not write the stall log", e);
+        }
+    }
+
+    // The top frames, then only the application's own frames below them, leaving out the dispatch machinery
+    private static void appendStack(StringBuilder entry, StackTraceElement[] stack) {
+        int skipped = 0;
+        for (int i = 0; i < stack.length; i++) {
+            StackTraceElement frame = stack[i];
+            if (isPlumbing(frame)) {
+                skipped++;
+            } else if (i < MAX_FRAMES || frame.getClassName().startsWith("petSystem.")) {
+                if (skipped > 0) {
+                    entry.append("    ... ").append(skipped).append(" more").append(System.lineSeparator());
+                    skipped = 0;
+                }
+                entry.append("    at ").append(frame).append(System.lineSeparator());
+            } else {
+                skipped++;
+            }
+        }
+        if (skipped > 0) {
+            entry.append("    ... ").append(skipped).append(" more").append(System.lineSeparator());
+        }
+    }
+
+    private static boolean isPlumbing(StackTraceElement frame) {
+        for (String prefix : PLUMBING) {
+            if (frame.getClassName().startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A click reaches a button's listeners as the button's mouse or key event, so the source names the control
+    private String describe(AWTEvent event) {
+        String description = event.getClass().getSimpleName();
+        String parameters = event.paramString();
+        if (event instanceof InvocationEvent) {
+            // invokeLater work: the parameters name the runnable's class
+            int start = parameters.indexOf("runnable=");
+            int end = start < 0 ? -1 : parameters.indexOf(',', start);
+            description += " " + (start < 0 ? parameters : end < 0 ? parameters.substring(start) : parameters.substring(start, end));
+        } else if (event instanceof ActionEvent) {
+            description += " \"" + ((ActionEvent) event).getActionCommand() + "\"";
+        } else {
+            int comma = parameters.indexOf(',');
+            description += " " + (comma < 0 ? parameters : parameters.substring(0, comma));
+        }
+        Object source = event.getSource();
+        if (source instanceof Component) {
+            String field = fieldNameOf((Component) source);
+            description += " from " + (field != null ? field + " (" + source.getClass().getSimpleName() + ")" : source.getClass().getName());
+        }
+        return description;
+    }
+
+    private synchronized String fieldNameOf(Component component) {
+        for (Object owner : owners) {
+            // The application's own classes; the Swing classes above them hold no controls of interest
+            for (Class<?> type = owner.getClass(); type != null && type.getPackage() == EdtStallDetector.class.getPackage(); type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (!Component.class.isAssignableFrom(field.getType())) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        if (field.get(owner) == component) {
+                            return field.getName();
+                        }
+                    } catch (IllegalAccessException e) {
+                        // Checked by setAccessible; cannot happen within the package
+                    }
+                }
+            }
+        }
+        return component.getName();
+    }
+
+    // Appends to the log, first moving a full log to .1, .1 to .2 and so on, dropping the oldest
+    private void write(String entry) throws IOException {
+        if (Files.exists(logFile) && Files.size(logFile) >= maxLogBytes) {
+            for (int i = LOG_FILES - 1; i >= 1; i--) {
+                Path older = logFile.resolveSibling(logFile.getFileName() + "." + i);
+                Path newer = i == 1 ? logFile : logFile.resolveSibling(logFile.getFileName() + "." + (i - 1));
+                if (Files.exists(newer)) {
+                    Files.move(newer, older, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        Path parent = logFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(entry);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package petSystem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// Flight Recorder event spanning the dispatch of one event that kept the Event Dispatch Thread busy past the threshold
+@Name("petSystem.EdtStall")
+@Label("EDT Stall")
+@Category("Pawfect Match")
+@Description("An event kept the Event Dispatch Thread busy past the stall threshold")
+class EdtStallEvent extends Event {
+    @Label("Event Type")
+    String eventType;
+
+    // Time the event itself kept the EDT busy; the event's duration also includes any modal dialog it opened
+    @Label("Busy")
+    @Timespan
+    long busy;
+}
@@ -0,0 +1,103 @@
+package petSystem;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Size-bounded LRU cache of entities by id with a time-to-live; shared by the worker threads
+public class EntityCache<V> {
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Integer, Entry<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    // Bumped by every write, so a read that overlapped one can tell its row may be stale
+    private long writes;
+
+    public EntityCache(String name, int maxEntries, long ttlMillis) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<Integer, Entry<V>>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry<V>> eldest) {
+                if (size() > EntityCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(int id) {
+        Entry<V> entry = entries.get(id);
+        if (entry != null && ttlNanos > 0 && System.nanoTime() - entry.loadedAt > ttlNanos) {
+            entries.remove(id);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    public synchronized void put(int id, V value) {
+        writes++;
+        if (maxEntries <= 0) {
+            return;
+        }
+        entries.put(id, new Entry<>(value, System.nanoTime()));
+    }
+
+    // Taken before reading an entity from the database, and handed back to putLoaded with the result
+    public synchronized long readStamp() {
+        return writes;
+    }
+
+    // Caches a value read from the database, unless the cache was written since the read began
+    public synchronized void putLoaded(int id, V value, long readStamp) {
+        if (maxEntries <= 0 || writes != readStamp) {
+            return;
+        }
+        entries.put(id, new Entry<>(value, System.nanoTime()));
+    }
+
+    public synchronized void invalidate(int id) {
+        writes++;
+        entries.remove(id);
+    }
+
+    public synchronized void clear() {
+        writes++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Publishes the cache's size, hits, misses and evictions as cache.<name>.* gauges
+    public void registerMetrics(Metrics metrics) {
+        String prefix = "cache." + name + ".";
+        metrics.gauge(prefix + "size", this::size);
+        metrics.gauge(prefix + "hits", hits::get);
+        metrics.gauge(prefix + "misses", misses::get);
+        metrics.gauge(prefix + "evictions", evictions::get);
+    }
+}
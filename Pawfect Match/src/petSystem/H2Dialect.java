@@ -0,0 +1,78 @@
+package petSystem;
+
+import java.sql.SQLException;
+
+// Embedded H2 database, for running without an Oracle server (file or in-memory URL)
+public class H2Dialect implements SqlDialect {
+    // Table, sequence and index already exist
+    private static final int[] ALREADY_EXISTS_CODES = {42101, 90035, 42111};
+    // Deadlock, lock timeout, concurrent update
+    private static final int[] RETRYABLE_CODES = {40001, 50200, 90131};
+    private static final int DUPLICATE_KEY = 23505;
+
+    @Override
+    public String getName() {
+        return "h2";
+    }
+
+    @Override
+    public String getDriverClass() {
+        return "org.h2.Driver";
+    }
+
+    @Override
+    public String getMigrationDirectory() {
+        return "/db/migration/h2/";
+    }
+
+    @Override
+    public String nextValue(String sequence) {
+        return "NEXT VALUE FOR " + sequence;
+    }
+
+    @Override
+    public String nextValuesQuery(String sequence) {
+        return "SELECT NEXT VALUE FOR " + sequence + " FROM SYSTEM_RANGE(1, ?)";
+    }
+
+    @Override
+    public String currentTimestamp() {
+        return "CURRENT_TIMESTAMP";
+    }
+
+    // Embedded rows need no round-trips, and a fetch size only makes H2 stream the result lazily, which is slower
+    @Override
+    public boolean fetchesInRoundTrips() {
+        return false;
+    }
+
+    // H2 waits up to its LOCK_TIMEOUT setting (two seconds by default)
+    @Override
+    public String forUpdate() {
+        return " FOR UPDATE";
+    }
+
+    @Override
+    public boolean isAlreadyExists(SQLException e) {
+        return matches(e, ALREADY_EXISTS_CODES);
+    }
+
+    @Override
+    public boolean isRetryable(SQLException e) {
+        return matches(e, RETRYABLE_CODES);
+    }
+
+    @Override
+    public boolean isUniqueViolation(SQLException e) {
+        return e.getErrorCode() == DUPLICATE_KEY;
+    }
+
+    private static boolean matches(SQLException e, int[] codes) {
+        for (int code : codes) {
+            if (e.getErrorCode() == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,25 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.logging.Logger;
+
+// Hands out primary key values from a database sequence for inserts that bind the id themselves
+public interface IdAllocator {
+    int nextId(Connection conn, String sequence) throws SQLException;
+
+    static IdAllocator fromConfig(DatabaseConfig config, SqlDialect dialect) {
+        String strategy = config.get("id.strategy", "inline");
+        switch (strategy) {
+            case "inline":
+                return null;
+            case "sequence":
+                return new SequenceIdAllocator(dialect);
+            case "block":
+                return new BlockIdAllocator(dialect, config.getInt("id.blockSize", 100));
+            default:
+                Logger.getLogger(IdAllocator.class.getName()).warning("Unknown id.strategy '" + strategy + "', using inline sequence values.");
+                return null;
+        }
+    }
+}
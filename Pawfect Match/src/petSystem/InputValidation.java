@@ -0,0 +1,33 @@
+package petSystem;
+
+// Field rules shared by the entry forms and bulk import; each method returns an error message or null when valid
+public final class InputValidation {
+
+    private InputValidation() {
+    }
+
+    public static String checkPet(String name, String species, String age) {
+        if (isBlank(name) || isBlank(species) || isBlank(age)) {
+            return "All pet fields must be filled.";
+        }
+        try {
+            if (Integer.parseInt(age.trim()) < 0) {
+                return "Age must be positive.";
+            }
+        } catch (NumberFormatException e) {
+            return "Age must be a number.";
+        }
+        return null;
+    }
+
+    public static String checkAdopter(String firstName, String lastName, String phone) {
+        if (isBlank(firstName) || isBlank(lastName) || isBlank(phone)) {
+            return "All adopter fields must be filled.";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
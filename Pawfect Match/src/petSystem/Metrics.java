@@ -0,0 +1,86 @@
+package petSystem;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Named latency histograms and counters for the application's hot paths: every background data-access task
+ * by operation, the rows it fetched and its failures, connection waits and Event Dispatch Thread delays.
+ * Recording is lock-free; the Diagnostics tab and JMX read snapshots. Gauges are counters whose value is
+ * read from elsewhere when a snapshot is taken, such as the pool's connections in use.
+ */
+public class Metrics implements MetricsMXBean {
+    public static final String OBJECT_NAME = "petSystem:type=Metrics";
+    private static final Logger LOG = Logger.getLogger(Metrics.class.getName());
+
+    private final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    public LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    // Publishes a histogram kept by another component under the given name
+    public void register(String name, LatencyHistogram histogram) {
+        timers.put(name, histogram);
+    }
+
+    public void increment(String name, long delta) {
+        counters.computeIfAbsent(name, n -> new LongAdder()).add(delta);
+    }
+
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    @Override
+    public Map<String, LatencyHistogram.Snapshot> getTimers() {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        timers.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot()));
+        return snapshots;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        return values;
+    }
+
+    // Starts the histograms and counters over; gauges keep reporting their source
+    @Override
+    public void reset() {
+        timers.values().forEach(LatencyHistogram::reset);
+        counters.values().forEach(LongAdder::reset);
+    }
+
+    // Makes the figures visible to JConsole, VisualVM and other JMX clients of this JVM
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            LOG.log(Level.WARNING, "Could not register the metrics MBean", e);
+        }
+    }
+
+    public void unregisterMBean() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            LOG.log(Level.WARNING, "Could not unregister the metrics MBean", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package petSystem;
+
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Counts the warnings and errors the application logs as the log.warnings and log.errors metrics, so a failure
+ * on a background thread such as the change feed or the archiver shows on the Diagnostics tab and over JMX,
+ * not only in the console log.
+ */
+public class MetricsLogHandler extends Handler {
+    // Held here: the log manager keeps loggers only weakly, and a collected logger takes its handlers with it
+    private static final Logger APPLICATION_LOGGER = Logger.getLogger("petSystem");
+
+    private final Metrics metrics;
+
+    private MetricsLogHandler(Metrics metrics) {
+        this.metrics = metrics;
+        setLevel(Level.WARNING);
+    }
+
+    public static void install(Metrics metrics) {
+        APPLICATION_LOGGER.addHandler(new MetricsLogHandler(metrics));
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (isLoggable(record)) {
+            metrics.increment(record.getLevel().intValue() >= Level.SEVERE.intValue() ? "log.errors" : "log.warnings", 1);
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
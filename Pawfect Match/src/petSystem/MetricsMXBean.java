@@ -0,0 +1,12 @@
+package petSystem;
+
+import java.util.Map;
+
+// The live figures of a {@link Metrics} registry as JMX sees them, under petSystem:type=Metrics
+public interface MetricsMXBean {
+    Map<String, LatencyHistogram.Snapshot> getTimers();
+
+    Map<String, Long> getCounters();
+
+    void reset();
+}
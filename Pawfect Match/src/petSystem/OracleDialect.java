@@ -0,0 +1,74 @@
+package petSystem;
+
+import java.sql.SQLException;
+
+public class OracleDialect implements SqlDialect {
+    // ORA-00955: name is already used by an existing object
+    private static final int ORA_NAME_ALREADY_USED = 955;
+    // ORA-00001: unique constraint violated
+    private static final int ORA_UNIQUE_CONSTRAINT = 1;
+    // ORA-00060 deadlock, ORA-00054 resource busy, ORA-30006 WAIT timeout expired, ORA-08177 can't serialize access
+    private static final int[] RETRYABLE_CODES = {60, 54, 30006, 8177};
+    private static final int LOCK_WAIT_SECONDS = 5;
+
+    @Override
+    public String getName() {
+        return "oracle";
+    }
+
+    @Override
+    public String getDriverClass() {
+        return "oracle.jdbc.driver.OracleDriver";
+    }
+
+    @Override
+    public String getMigrationDirectory() {
+        return "/db/migration/oracle/";
+    }
+
+    @Override
+    public String nextValue(String sequence) {
+        return sequence + ".NEXTVAL";
+    }
+
+    @Override
+    public String nextValuesQuery(String sequence) {
+        return "SELECT " + sequence + ".NEXTVAL FROM dual CONNECT BY LEVEL <= ?";
+    }
+
+    @Override
+    public String currentTimestamp() {
+        return "SYSDATE";
+    }
+
+    // The thin driver fetches 10 rows per round-trip unless told otherwise
+    @Override
+    public boolean fetchesInRoundTrips() {
+        return true;
+    }
+
+    @Override
+    public String forUpdate() {
+        return " FOR UPDATE WAIT " + LOCK_WAIT_SECONDS;
+    }
+
+    @Override
+    public boolean isAlreadyExists(SQLException e) {
+        return e.getErrorCode() == ORA_NAME_ALREADY_USED;
+    }
+
+    @Override
+    public boolean isRetryable(SQLException e) {
+        for (int code : RETRYABLE_CODES) {
+            if (e.getErrorCode() == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isUniqueViolation(SQLException e) {
+        return e.getErrorCode() == ORA_UNIQUE_CONSTRAINT;
+    }
+}
@@ -0,0 +1,605 @@
+package petSystem;
+
+import javax.swing.table.AbstractTableModel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Table model that only holds the pages the table is actually showing. Rows are read in
+ * sort order with keyset pagination ({@code (sort value, key) > last row of previous page}), a bounded
+ * number of pages is kept in an LRU cache, and the total row count is fetched separately.
+ * The search condition and sort column are pushed down into the SQL; changing either starts over.
+ * Pages are stored column by column ({@link ColumnarPage}), so integer columns are kept unboxed.
+ * All state is owned by the Event Dispatch Thread; queries run on the {@link DataAccessExecutor}.
+ */
+public class PagedTableModel extends AbstractTableModel {
+    private static final Logger LOG = Logger.getLogger(PagedTableModel.class.getName());
+
+    private final String name;
+    private final String channel;
+    private final DataAccessExecutor executor;
+    private final ConnectionSource connectionSource;
+    private final String select;
+    private final String filter;
+    private final String keyColumn;
+    private final String[] columnNames;
+    private final int dataColumnCount;
+    private final boolean hasActionColumn;
+    private final int pageSize;
+    private final int maxCachedPages;
+    private final ResultSetMapper mapper;
+
+    private final Map<Integer, ColumnarPage> pages;
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private final BitSet knownBoundaries = new BitSet();
+    private Object[][] pageLastRows = new Object[16][];
+    private int rowCount;
+    private boolean countKnown;
+    private int generation;
+
+    private String[] sortExpressions;
+    private int sortColumn;
+    private boolean ascending = true;
+    private String searchCondition;
+    private Object[] searchParameters = new Object[0];
+
+    public PagedTableModel(String name, String channel, DataAccessExecutor executor, ConnectionSource connectionSource,
+                           SqlDialect dialect, String select, String filter, String keyColumn, String[] columnNames,
+                           String actionColumnName, int pageSize, int maxCachedPages) {
+        this.name = name;
+        this.channel = channel;
+        this.executor = executor;
+        this.connectionSource = connectionSource;
+        this.select = select;
+        this.filter = filter;
+        this.keyColumn = keyColumn;
+        this.dataColumnCount = columnNames.length;
+        this.hasActionColumn = actionColumnName != null;
+        this.columnNames = hasActionColumn ? Arrays.copyOf(columnNames, columnNames.length + 1) : columnNames;
+        if (hasActionColumn) {
+            this.columnNames[columnNames.length] = actionColumnName;
+        }
+        this.pageSize = pageSize;
+        this.maxCachedPages = maxCachedPages;
+        this.mapper = new ResultSetMapper(dataColumnCount, dialect);
+        this.sortExpressions = new String[dataColumnCount];
+        this.sortExpressions[0] = keyColumn;
+        this.pages = new LinkedHashMap<Integer, ColumnarPage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ColumnarPage> eldest) {
+                return size() > PagedTableModel.this.maxCachedPages;
+            }
+        };
+    }
+
+    // SQL expression to sort each data column by, or null where sorting is not offered; column 0 is the key
+    public void setSortExpressions(String... expressions) {
+        sortExpressions = Arrays.copyOf(expressions, dataColumnCount);
+        sortExpressions[0] = keyColumn;
+    }
+
+    public boolean isSortable(int column) {
+        return column < dataColumnCount && sortExpressions[column] != null;
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    // Rows with equal sort values are ordered by key, in the same direction
+    public void setSort(int column, boolean ascending) {
+        if (!isSortable(column)) {
+            throw new IllegalArgumentException("Column " + column + " is not sortable");
+        }
+        if (column == sortColumn && ascending == this.ascending) {
+            return;
+        }
+        this.sortColumn = column;
+        this.ascending = ascending;
+        reload();
+    }
+
+    /**
+     * Narrows the rows to those matching the condition, an SQL predicate over the select's tables
+     * with one {@code ?} per parameter. A null condition shows every row again.
+     */
+    public void setSearch(String condition, Object... parameters) {
+        Object[] newParameters = condition == null ? new Object[0] : parameters.clone();
+        if (Objects.equals(condition, searchCondition) && Arrays.equals(newParameters, searchParameters)) {
+            return;
+        }
+        searchCondition = condition;
+        searchParameters = newParameters;
+        reload();
+    }
+
+    // Drops every cached page and starts over from the first page
+    public void reload() {
+        generation++;
+        for (int pageIndex : pendingPages) {
+            executor.cancel(name + ".page." + pageIndex);
+        }
+        executor.cancel(name + ".count");
+        pages.clear();
+        pendingPages.clear();
+        knownBoundaries.clear();
+        rowCount = 0;
+        countKnown = false;
+        fireTableDataChanged();
+        // The count waits for the first page: both scan the same rows and the page is what the user sees
+        requestPage(0);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return hasActionColumn && column == dataColumnCount;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column >= dataColumnCount) {
+            return null;
+        }
+        int pageIndex = row / pageSize;
+        ColumnarPage page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+        int offset = row % pageSize;
+        if (offset >= page.size()) {
+            // Page lost rows to a delete; fetch it again to fill the gap
+            requestPage(pageIndex);
+            return null;
+        }
+        return page.get(offset, column);
+    }
+
+    public int getKeyAt(int row) {
+        Object value = getValueAt(row, 0);
+        return value == null ? -1 : ((Number) value).intValue();
+    }
+
+    /**
+     * Reads the single row with the given key, or null when it no longer matches this model's filter
+     * and search. Safe to call from a worker thread.
+     */
+    public Object[] fetchRow(Connection conn, int key) throws SQLException {
+        return fetchRow(conn, key, searchCondition, searchParameters);
+    }
+
+    private Object[] fetchRow(Connection conn, int key, String condition, Object[] parameters) throws SQLException {
+        String sql = select + where(condition) + (filter == null && condition == null ? " WHERE " : " AND ") + keyColumn + " = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(bind(stmt, 1, parameters), key);
+            try (ResultSet rs = stmt.executeQuery()) {
+                ColumnarPage rows = mapper.read(rs, 1);
+                return rows.size() == 0 ? null : rows.row(0);
+            }
+        }
+    }
+
+    // Re-reads one row in the background and applies it as an insert, update or delete
+    public void refreshRow(int key) {
+        int requestGeneration = generation;
+        String condition = searchCondition;
+        Object[] parameters = searchParameters;
+        executor.submit(name + ".refresh", channel, null, () -> {
+            try (Connection conn = connectionSource.getConnection()) {
+                return new Object[][]{fetchRow(conn, key, condition, parameters)};
+            }
+        }, result -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            if (result[0] == null) {
+                deleteRow(key);
+            } else {
+                applyRow(result[0]);
+            }
+        }, this::logFailure);
+    }
+
+    // Like refreshRow for many keys at once, with one query per few hundred keys instead of one per key
+    public void refreshRows(Collection<Integer> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        int requestGeneration = generation;
+        String condition = searchCondition;
+        Object[] parameters = searchParameters;
+        int[] keyArray = keys.stream().mapToInt(Integer::intValue).distinct().toArray();
+        executor.submit(name + ".refresh", channel, null, () -> {
+            Map<Integer, Object[]> found = new HashMap<>();
+            try (Connection conn = connectionSource.getConnection()) {
+                for (int from = 0; from < keyArray.length; from += Queries.MAX_IN_LIST) {
+                    int to = Math.min(keyArray.length, from + Queries.MAX_IN_LIST);
+                    String sql = select + where(condition) + (filter == null && condition == null ? " WHERE " : " AND ")
+                            + keyColumn + " IN (" + Queries.placeholders(to - from) + ")";
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        Queries.bindInList(stmt, bind(stmt, 1, parameters), keyArray, from, to);
+                        mapper.applyFetchSize(stmt, to - from);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            ColumnarPage rows = mapper.read(rs, to - from);
+                            for (int i = 0; i < rows.size(); i++) {
+                                found.put(rows.key(i), rows.row(i));
+                            }
+                        }
+                    }
+                }
+            }
+            return found;
+        }, found -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            for (int key : keyArray) {
+                Object[] row = found.get(key);
+                if (row == null) {
+                    deleteRow(key);
+                } else {
+                    applyRow(row);
+                }
+            }
+        }, this::logFailure);
+    }
+
+    // Re-reads every cached row whose column holds the given value, e.g. adoptions of a renamed pet
+    public void refreshRowsFor(int column, int value) {
+        List<Integer> keys = new ArrayList<>();
+        for (ColumnarPage page : pages.values()) {
+            for (int i = 0; i < page.size(); i++) {
+                if (page.holds(i, column, value)) {
+                    keys.add(page.key(i));
+                }
+            }
+        }
+        refreshRows(keys);
+    }
+
+    // Applies a row the caller has just written; the first column must hold the key
+    public void upsertRow(Object[] row) {
+        if (searchCondition != null) {
+            // Only the database can tell whether the row matches the search
+            refreshRow(keyOf(row));
+        } else {
+            applyRow(row);
+        }
+    }
+
+    private void applyRow(Object[] row) {
+        int key = keyOf(row);
+        if (!isKeyOrder()) {
+            applySortedRow(row, key);
+            return;
+        }
+        for (Map.Entry<Integer, ColumnarPage> entry : pages.entrySet()) {
+            ColumnarPage page = entry.getValue();
+            int offset = search(page, key);
+            if (offset >= 0) {
+                page.set(offset, row);
+                int rowIndex = entry.getKey() * pageSize + offset;
+                fireTableRowsUpdated(rowIndex, rowIndex);
+                return;
+            }
+        }
+        for (Map.Entry<Integer, ColumnarPage> entry : pages.entrySet()) {
+            int pageIndex = entry.getKey();
+            ColumnarPage page = entry.getValue();
+            if (fitsInPage(pageIndex, page, key)) {
+                insertIntoPage(pageIndex, page, -search(page, key) - 1, row);
+                return;
+            }
+        }
+        // Not inside any cached page: ask the database where the row lands
+        int requestGeneration = generation;
+        Object[] parameters = searchParameters;
+        String sql = "SELECT COUNT(*) FROM (" + select + where(searchCondition)
+                + (filter == null && searchCondition == null ? " WHERE " : " AND ") + keyColumn + " < ?) t";
+        executor.submit(name + ".position", channel, null, () -> {
+            try (Connection conn = connectionSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(bind(stmt, 1, parameters), key);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        }, position -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            int rowIndex = Math.min(position, rowCount);
+            invalidateFrom(rowIndex / pageSize);
+            rowCount++;
+            fireTableRowsInserted(rowIndex, rowIndex);
+        }, this::logFailure);
+    }
+
+    // Outside key order a row keeps its place only while its sort value is unchanged
+    private void applySortedRow(Object[] row, int key) {
+        for (Map.Entry<Integer, ColumnarPage> entry : pages.entrySet()) {
+            ColumnarPage page = entry.getValue();
+            int offset = indexOfKey(page, key);
+            if (offset >= 0 && Objects.equals(page.get(offset, sortColumn), row[sortColumn])) {
+                page.set(offset, row);
+                int rowIndex = entry.getKey() * pageSize + offset;
+                fireTableRowsUpdated(rowIndex, rowIndex);
+                return;
+            }
+        }
+        resync();
+    }
+
+    public void deleteRow(int key) {
+        for (Map.Entry<Integer, ColumnarPage> entry : pages.entrySet()) {
+            int pageIndex = entry.getKey();
+            ColumnarPage page = entry.getValue();
+            int offset = isKeyOrder() ? search(page, key) : indexOfKey(page, key);
+            if (offset >= 0) {
+                ColumnarPage shrunk = page.removed(offset);
+                invalidateFrom(pageIndex + 1);
+                knownBoundaries.clear(pageIndex);
+                pages.put(pageIndex, shrunk);
+                rowCount--;
+                int rowIndex = pageIndex * pageSize + offset;
+                fireTableRowsDeleted(rowIndex, rowIndex);
+                return;
+            }
+        }
+        resync();
+    }
+
+    // The changed row's position is unknown; keep the first page, recount, and repaint the rows after it in place
+    // rather than announcing new data, which would clear the table's selection
+    private void resync() {
+        invalidateFrom(1);
+        requestCount();
+        if (rowCount > pageSize) {
+            fireTableRowsUpdated(pageSize, rowCount - 1);
+        }
+    }
+
+    private boolean isKeyOrder() {
+        return sortColumn == 0 && ascending;
+    }
+
+    private boolean fitsInPage(int pageIndex, ColumnarPage page, int key) {
+        if (page.size() == 0) {
+            return false;
+        }
+        int first = page.key(0);
+        int last = page.key(page.size() - 1);
+        boolean afterPrevious = pageIndex == 0 || (knownBoundaries.get(pageIndex - 1) && key > keyOf(pageLastRows[pageIndex - 1]));
+        // A full last page has no room past its end; such a row starts the next page
+        boolean isOpenLastPage = countKnown && page.size() < pageSize && pageIndex * pageSize + page.size() >= rowCount;
+        return (key >= first || afterPrevious) && (key <= last || isOpenLastPage);
+    }
+
+    private void insertIntoPage(int pageIndex, ColumnarPage page, int offset, Object[] row) {
+        ColumnarPage grown = page.inserted(offset, row, pageSize);
+        // The row pushed off the end of this page now belongs to the next one
+        invalidateFrom(pageIndex + 1);
+        pages.put(pageIndex, grown);
+        recordBoundary(pageIndex, grown.row(grown.size() - 1));
+        rowCount++;
+        int rowIndex = pageIndex * pageSize + offset;
+        fireTableRowsInserted(rowIndex, rowIndex);
+    }
+
+    // Forgets cached pages and page boundaries from the given page onwards
+    private void invalidateFrom(int pageIndex) {
+        pages.keySet().removeIf(index -> index >= pageIndex);
+        pendingPages.removeIf(index -> index >= pageIndex);
+        knownBoundaries.clear(Math.max(0, pageIndex), Math.max(pageIndex, knownBoundaries.length()));
+    }
+
+    private static int search(ColumnarPage page, int key) {
+        int low = 0;
+        int high = page.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midKey = page.key(mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int indexOfKey(ColumnarPage page, int key) {
+        for (int i = 0; i < page.size(); i++) {
+            if (page.key(i) == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int keyOf(Object[] row) {
+        return ((Number) row[0]).intValue();
+    }
+
+    private void requestPage(int pageIndex) {
+        if (!pendingPages.add(pageIndex)) {
+            return;
+        }
+        int requestGeneration = generation;
+        int anchorPage = knownBoundaries.previousSetBit(pageIndex - 1);
+        Object[] anchor = anchorPage >= 0 ? pageLastRows[anchorPage] : null;
+        int skipRows = (pageIndex - anchorPage - 1) * pageSize;
+        String sql = buildPageQuery(anchor != null, skipRows);
+        Object[] parameters = searchParameters;
+        Object[] anchorParameters = anchor == null ? new Object[0]
+                : sortColumn == 0 ? new Object[]{anchor[0]}
+                : new Object[]{anchor[sortColumn], anchor[sortColumn], anchor[0]};
+
+        executor.submit(name + ".page", channel, name + ".page." + pageIndex, () -> {
+            try (Connection conn = connectionSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int index = bind(stmt, 1, parameters);
+                index = bind(stmt, index, anchorParameters);
+                if (skipRows > 0) {
+                    stmt.setInt(index, skipRows);
+                }
+                mapper.applyFetchSize(stmt, pageSize);
+                DataAccessExecutor.cancelOnSupersede(stmt);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return mapper.read(rs, pageSize);
+                }
+            }
+        }, rows -> {
+            if (requestGeneration != generation || !pendingPages.remove(pageIndex)) {
+                return;
+            }
+            pages.put(pageIndex, rows);
+            if (countKnown && rows.size() < pageSize && pageIndex * pageSize + rows.size() < rowCount) {
+                // Fewer rows than expected: someone else removed rows, so the count is stale
+                requestCount();
+            }
+            if (rows.size() > 0) {
+                recordBoundary(pageIndex, rows.row(rows.size() - 1));
+            }
+            int firstRow = pageIndex * pageSize;
+            int provisionalCount = firstRow + rows.size();
+            if (!countKnown && provisionalCount > rowCount) {
+                int oldCount = rowCount;
+                rowCount = provisionalCount;
+                fireTableRowsInserted(oldCount, rowCount - 1);
+            } else if (rows.size() > 0) {
+                fireTableRowsUpdated(firstRow, Math.min(rowCount, firstRow + rows.size()) - 1);
+            }
+            if (pageIndex == 0 && !countKnown) {
+                if (rows.size() < pageSize) {
+                    countKnown = true;
+                } else {
+                    requestCount();
+                }
+            }
+        }, e -> {
+            if (requestGeneration == generation) {
+                pendingPages.remove(pageIndex);
+            }
+            logFailure(e);
+        });
+    }
+
+    private void requestCount() {
+        int requestGeneration = generation;
+        String sql = "SELECT COUNT(*) FROM (" + select + where(searchCondition) + ") t";
+        Object[] parameters = searchParameters;
+        executor.submit(name + ".count", channel, name + ".count", () -> {
+            try (Connection conn = connectionSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                bind(stmt, 1, parameters);
+                DataAccessExecutor.cancelOnSupersede(stmt);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        }, count -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            countKnown = true;
+            int oldCount = rowCount;
+            rowCount = count;
+            if (count > oldCount) {
+                fireTableRowsInserted(oldCount, count - 1);
+            } else if (count < oldCount) {
+                fireTableRowsDeleted(count, oldCount - 1);
+            }
+        }, this::logFailure);
+    }
+
+    private void logFailure(Exception e) {
+        LOG.log(Level.WARNING, "Could not read rows for the " + name + " table", e);
+    }
+
+    private String where(String condition) {
+        if (filter == null) {
+            return condition == null ? "" : " WHERE " + condition;
+        }
+        return condition == null ? " WHERE " + filter : " WHERE " + filter + " AND (" + condition + ")";
+    }
+
+    private static int bind(PreparedStatement stmt, int firstIndex, Object[] values) throws SQLException {
+        int index = firstIndex;
+        for (Object value : values) {
+            stmt.setObject(index++, value);
+        }
+        return index;
+    }
+
+    private String buildPageQuery(boolean hasAnchor, int skipRows) {
+        String direction = ascending ? " ASC" : " DESC";
+        String after = ascending ? " > ?" : " < ?";
+        StringBuilder sql = new StringBuilder(select).append(where(searchCondition));
+        if (hasAnchor) {
+            sql.append(filter == null && searchCondition == null ? " WHERE " : " AND ");
+            if (sortColumn == 0) {
+                sql.append(keyColumn).append(after);
+            } else {
+                String sortExpression = sortExpressions[sortColumn];
+                sql.append("(").append(sortExpression).append(after)
+                        .append(" OR (").append(sortExpression).append(" = ? AND ").append(keyColumn).append(after).append("))");
+            }
+        }
+        sql.append(" ORDER BY ");
+        if (sortColumn != 0) {
+            sql.append(sortExpressions[sortColumn]).append(direction).append(", ");
+        }
+        sql.append(keyColumn).append(direction);
+        if (skipRows > 0) {
+            sql.append(" OFFSET ? ROWS FETCH NEXT ").append(pageSize).append(" ROWS ONLY");
+        } else {
+            sql.append(" FETCH FIRST ").append(pageSize).append(" ROWS ONLY");
+        }
+        return sql.toString();
+    }
+
+    private void recordBoundary(int pageIndex, Object[] lastRow) {
+        if (pageIndex >= pageLastRows.length) {
+            pageLastRows = Arrays.copyOf(pageLastRows, Math.max(pageIndex + 1, pageLastRows.length * 2));
+        }
+        pageLastRows[pageIndex] = lastRow;
+        knownBoundaries.set(pageIndex);
+    }
+}
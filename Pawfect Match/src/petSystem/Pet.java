@@ -0,0 +1,35 @@
+package petSystem;
+
+public final class Pet {
+    private final int id;
+    private final String name;
+    private final String species;
+    private final int age;
+
+    public Pet(int id, String name, String species, int age) {
+        this.id = id;
+        this.name = name;
+        this.species = species;
+        this.age = age;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSpecies() {
+        return species;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public Object[] toRow() {
+        return new Object[]{id, name, species, age};
+    }
+}
@@ -1,139 +1,231 @@
 package petSystem;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.nio.file.Paths;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class PetAdoptionApp extends JFrame {
-    private static final String DB_URL = "jdbc:oracle:thin:@localhost:1521:orcl";
-    private static final String DB_USER = "system";
-    private static final String DB_PASSWORD = "password";
-
-    private Connection connection;
+    private static final Logger LOG = Logger.getLogger(PetAdoptionApp.class.getName());
+
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 20;
+    private static final int SEARCH_DELAY_MS = 250;
+    // Above this many index matches a search box falls back to a LIKE query instead of an id list
+    private static final int MAX_INDEXED_MATCHES = 500;
+    private static final String[] ADOPTION_COLUMNS = {"ADOPTION_ID", "PET_ID", "PET_NAME", "ADOPTER_ID", "ADOPTER_NAME", "ADOPTION_DATE", "STATUS"};
+    private static final Color EDIT_COLOR = new Color(0, 90, 160);
+    private static final Color ADOPT_COLOR = new Color(0, 128, 0);
+    private static final String TITLE = "Pawfect Match : Pet Adoption Management System";
+
+    private Database database;
+    private ShelterRepository repository;
+    private AdoptionService adoptionService;
+    private AuthService authService;
+    private Session session;
+    private BulkTransfer bulkTransfer;
+    private ReportService reportService;
+    private ChangeFeed changeFeed;
+    private long changePollMillis;
+    private Archiver archiver;
+    private long archiveIntervalMillis;
     private JTabbedPane tabbedPane;
-    private BackgroundPanel loginPanel, registrationPanel, homePanel, petPanel, adopterPanel, adoptionPanel, statusPanel;
-    private JTextField loginUsername, loginPassword, regUsername, regPassword;
+    private BackgroundPanel loginPanel, registrationPanel, homePanel, petPanel, adopterPanel, adoptionPanel, statusPanel, reportsPanel;
+    private JTextField loginUsername, regUsername;
+    private JPasswordField loginPassword, regPassword;
     private JTextField petName, petSpecies, petAge, petIdToUpdate;
     private JTextField adopterFirstName, adopterLastName, adopterPhone, adopterIdToUpdate;
     private JTextField adoptionPetId, adoptionAdopterId;
+    private JTextField petSearchName, petSearchSpecies, petSearchMinAge, petSearchMaxAge;
+    private JTextField adopterSearchName, adopterSearchPhone;
     private JButton loginButton, registerButton, logoutButton, addPetButton, editPetButton, clearPetButton;
     private JButton addAdopterButton, editAdopterButton, clearAdopterButton;
     private JButton addAdoptionButton, updateStatusButton, helpButton;
     private JTable petTable, adopterTable, adoptionTable, statusTable;
+    private PagedTableModel petModel, adopterModel, adoptionModel, statusModel;
     private JComboBox<String> statusComboBox;
     private boolean isEditingPet = false;
     private boolean isEditingAdopter = false;
-    private ImageIcon backgroundImage;
-    private Image scaledImage;
+    private final BackdropRenderer backdrop = new BackdropRenderer();
+    private final DatabaseConfig config;
+    private final SqlDialect dialect;
+    private final Metrics metrics;
+    private final DataAccessExecutor dataExecutor;
+    private DiagnosticsPanel diagnosticsPanel;
+    private ReportsPanel reportsView;
+    private final Map<String, JProgressBar> busyIndicators = new HashMap<>();
+    private final BitSet builtTabs = new BitSet();
+    private final StartupTimer startupTimer = new StartupTimer();
 
     // Custom JPanel class for consistent background
     private class BackgroundPanel extends JPanel {
         public BackgroundPanel(LayoutManager layout) {
             super(layout);
+            backdrop.register(this);
         }
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            if (scaledImage != null) {
-                g.drawImage(scaledImage, 0, 0, getWidth(), getHeight(), this);
-            }
+            backdrop.paint(g, this);
+            startupTimer.markFirstFrame();
         }
     }
 
-    public PetAdoptionApp() {
-        initializeDatabase();
-        setTitle("Pawfect Match : Pet Adoption Management System");
+    public PetAdoptionApp(DatabaseConfig config, Metrics metrics) {
+        this.config = config;
+        this.metrics = metrics;
+        // Known from the configuration alone, so the table models can be built before the database is open
+        this.dialect = SqlDialect.fromConfig(config);
+        dataExecutor = new DataAccessExecutor(4, metrics);
+        setTitle(TITLE);
         setSize(800, 600);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
 
-        try {
-            backgroundImage = new ImageIcon(getClass().getResource("/pet1.jpg"));
-            scaledImage = backgroundImage.getImage().getScaledInstance(800, 600, Image.SCALE_SMOOTH);
-        } catch (Exception e) {
-            System.out.println("Background image not found, using default background.");
-        }
+        backdrop.load(getClass().getResource("/pet1.jpg"));
+
+        // Models are cheap until reloaded; the management tabs themselves are built on first use
+        petModel = createPetModel();
+        adopterModel = createAdopterModel();
+        adoptionModel = createAdoptionModel("adoptions", null);
+        statusModel = createAdoptionModel("status", "a.status != 'Completed'");
 
         tabbedPane = new JTabbedPane();
         createLoginPanel();
         createRegistrationPanel();
         createHomePanel();
-        createPetPanel();
-        createAdopterPanel();
-        createAdoptionPanel();
-        createStatusPanel();
 
         tabbedPane.addTab("Login", loginPanel);
         tabbedPane.addTab("Registration", registrationPanel);
         tabbedPane.addTab("Home", homePanel);
-        tabbedPane.addTab("Pets", petPanel);
-        tabbedPane.addTab("Adopters", adopterPanel);
-        tabbedPane.addTab("Adoptions", adoptionPanel);
-        tabbedPane.addTab("Update Status", statusPanel);
+        tabbedPane.addTab("Pets", new BackgroundPanel(new BorderLayout()));
+        tabbedPane.addTab("Adopters", new BackgroundPanel(new BorderLayout()));
+        tabbedPane.addTab("Adoptions", new BackgroundPanel(new BorderLayout()));
+        tabbedPane.addTab("Update Status", new BackgroundPanel(new BorderLayout()));
+        tabbedPane.addTab("Reports", new BackgroundPanel(new BorderLayout()));
 
         for (int i = 2; i < tabbedPane.getTabCount(); i++) {
             tabbedPane.setEnabledAt(i, false);
         }
+        tabbedPane.addChangeListener(e -> {
+            int index = tabbedPane.getSelectedIndex();
+            if (index == 7 && builtTabs.get(index)) {
+                // Adoptions may have changed on the other tabs since the figures were read
+                reportsView.reload();
+            }
+            ensureTab(index);
+        });
 
         add(tabbedPane);
         tabbedPane.setSelectedIndex(0);
         createMenuBar();
-    }
 
-    private void initializeDatabase() {
-        try {
-            Class.forName("oracle.jdbc.driver.OracleDriver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            System.out.println("Connected to the database.");
-            createTablesIfNotExist();
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to connect to the database.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
+        // The Diagnostics tab stays hidden until Ctrl+Shift+D
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(
+                KeyStroke.getKeyStroke(KeyEvent.VK_D, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "diagnostics");
+        getRootPane().getActionMap().put("diagnostics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                toggleDiagnostics();
+            }
+        });
+        metrics.gauge("startup.firstFrameMillis", () -> startupTimer.getMillis(StartupTimer.FIRST_FRAME));
+        metrics.gauge("startup.interactiveMillis", () -> startupTimer.getMillis(StartupTimer.INTERACTIVE));
+        metrics.registerMBean();
 
-    private void createTablesIfNotExist() {
-        try {
-            Statement stmt = connection.createStatement();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (changeFeed != null) {
+                    changeFeed.stop();
+                }
+                if (archiver != null) {
+                    archiver.stop();
+                }
+                dataExecutor.shutdown();
+                if (database != null) {
+                    database.close();
+                }
+            }
+        });
 
-            // Drop existing tables and sequences
-            try {
-                stmt.execute("DROP TABLE Adoptions");
-                stmt.execute("DROP TABLE Adopters");
-                stmt.execute("DROP TABLE Pets");
-                stmt.execute("DROP TABLE Users");
-                stmt.execute("DROP SEQUENCE adoption_seq");
-                stmt.execute("DROP SEQUENCE adopter_seq");
-                stmt.execute("DROP SEQUENCE pet_seq");
-                stmt.execute("DROP SEQUENCE user_seq");
-            } catch (SQLException e) {
-                // Ignore if they don’t exist
+        dataExecutor.setBusyListener((channel, busy) -> {
+            JProgressBar indicator = busyIndicators.get(channel);
+            if (indicator != null) {
+                indicator.setVisible(busy);
+                if (!busy) {
+                    indicator.setIndeterminate(true);
+                    indicator.setStringPainted(false);
+                }
+            }
+        });
+        dataExecutor.submit("startup", null, () -> {
+            initializeDatabase();
+            return null;
+        }, ignored -> {
+            startupTimer.markDatabaseReady();
+            rebuildSearchIndex("pets");
+            rebuildSearchIndex("adopters");
+            changeFeed.start(changePollMillis, changes -> {
+                try {
+                    repository.applyRemoteChanges(changes);
+                } catch (SQLException e) {
+                    LOG.log(Level.WARNING, "Could not apply remote changes to the caches", e);
+                }
+                SwingUtilities.invokeLater(() -> applyRemoteChanges(changes));
+            });
+            if (archiveIntervalMillis > 0) {
+                archiver.start(archiveIntervalMillis);
             }
+        }, e -> {
+            LOG.log(Level.SEVERE, "Could not open the database", e);
+            JOptionPane.showMessageDialog(this, "Failed to connect to the database.", "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
 
-            // Create sequences
-            stmt.execute("CREATE SEQUENCE user_seq START WITH 1 INCREMENT BY 1 NOCACHE");
-            stmt.execute("CREATE SEQUENCE pet_seq START WITH 1 INCREMENT BY 1 NOCACHE");
-            stmt.execute("CREATE SEQUENCE adopter_seq START WITH 1 INCREMENT BY 1 NOCACHE");
-            stmt.execute("CREATE SEQUENCE adoption_seq START WITH 1 INCREMENT BY 1 NOCACHE");
-
-            // Create tables
-            stmt.execute("CREATE TABLE Users (user_id NUMBER PRIMARY KEY, username VARCHAR2(50) UNIQUE NOT NULL, password VARCHAR2(50) NOT NULL, role VARCHAR2(20) NOT NULL)");
-            stmt.execute("CREATE TABLE Pets (pet_id NUMBER PRIMARY KEY, pet_name VARCHAR2(50) NOT NULL, species VARCHAR2(50) NOT NULL, age NUMBER NOT NULL)");
-            stmt.execute("CREATE TABLE Adopters (adopter_id NUMBER PRIMARY KEY, first_name VARCHAR2(50) NOT NULL, last_name VARCHAR2(50) NOT NULL, phone VARCHAR2(20) NOT NULL)");
-            stmt.execute("CREATE TABLE Adoptions (adoption_id NUMBER PRIMARY KEY, adopter_id NUMBER REFERENCES Adopters(adopter_id), pet_id NUMBER REFERENCES Pets(pet_id), adoption_date DATE NOT NULL, status VARCHAR2(20) NOT NULL)");
-
-            stmt.close();
-            System.out.println("Database tables and sequences created successfully.");
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to initialize database: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+    private void initializeDatabase() throws Exception {
+        database = Database.open(config);
+        ConnectionPool pool = database.getPool();
+        metrics.register("pool.wait", pool.getWaitTimes());
+        metrics.gauge("pool.active", pool::getActiveCount);
+        metrics.gauge("pool.borrows", pool::getBorrowCount);
+        metrics.gauge("pool.timeouts", pool::getWaitTimeouts);
+        metrics.gauge("statements.reused", pool::getStatementCacheHits);
+        metrics.gauge("statements.prepared", pool::getStatementCacheMisses);
+        changeFeed = new ChangeFeed(this::getConnection, dialect);
+        changePollMillis = config.getLong("changes.pollMillis", 2000L);
+        archiver = new Archiver(this::getConnection, dialect, TimeUnit.DAYS.toMillis(config.getLong("archive.afterDays", 365L)), config.getInt("archive.batchSize", 200));
+        archiveIntervalMillis = TimeUnit.MINUTES.toMillis(config.getLong("archive.intervalMinutes", 60L));
+        repository = new ShelterRepository(this::getConnection, dialect, changeFeed, config.getCacheMaxEntries(), config.getCacheTtlMillis());
+        repository.registerMetrics(metrics);
+        bulkTransfer = new BulkTransfer(this::getConnection, dialect, changeFeed, config.getInt("bulk.chunkSize", 500), IdAllocator.fromConfig(config, dialect));
+        adoptionService = new AdoptionService(this::getConnection, dialect, repository, config.getInt("adoption.maxAttempts", 5));
+        adoptionService.registerMetrics(metrics);
+        reportService = new ReportService(this::getConnection);
+        authService = new AuthService(this::getConnection, dialect, config.getInt("auth.iterations", 600_000));
+        LOG.info("Connected to the " + dialect.getName() + " database.");
     }
+
     private void createLoginPanel() {
         loginPanel = new BackgroundPanel(new GridBagLayout());
 
@@ -156,17 +248,38 @@ public class PetAdoptionApp extends JFrame {
         loginPanel.add(loginFormPanel);
 
         loginButton.addActionListener(e -> {
+            if (authService == null) {
+                JOptionPane.showMessageDialog(this, "Not connected to the database.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             String username = loginUsername.getText();
-            String password = loginPassword.getText();
-            if (validateCredentials(username, password)) {
-                JOptionPane.showMessageDialog(this, "Login successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                for (int i = 2; i < tabbedPane.getTabCount(); i++) {
-                    tabbedPane.setEnabledAt(i, true);
+            char[] password = loginPassword.getPassword();
+            loginButton.setEnabled(false);
+            dataExecutor.submit("login", null, () -> {
+                try {
+                    return authService.login(username, password);
+                } finally {
+                    Arrays.fill(password, '\0');
                 }
-                tabbedPane.setSelectedIndex(2);
-            } else {
+            }, newSession -> {
+                loginButton.setEnabled(true);
+                if (newSession != null) {
+                    session = newSession;
+                    setTitle(TITLE + " - " + session.getUsername() + " (" + session.getRole() + ")");
+                    JOptionPane.showMessageDialog(this, "Login successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    for (int i = 2; i < tabbedPane.getTabCount(); i++) {
+                        tabbedPane.setEnabledAt(i, true);
+                    }
+                    tabbedPane.setSelectedIndex(2);
+                    prefetchTabs();
+                } else {
+                    JOptionPane.showMessageDialog(this, "Invalid username or password.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }, ex -> {
+                loginButton.setEnabled(true);
+                LOG.log(Level.WARNING, "Login failed", ex);
                 JOptionPane.showMessageDialog(this, "Invalid username or password.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            });
         });
     }
 
@@ -193,17 +306,35 @@ public class PetAdoptionApp extends JFrame {
 
         registerButton.addActionListener(e -> {
             String username = regUsername.getText();
-            String password = regPassword.getText();
-            if (username.isEmpty() || password.isEmpty()) {
+            char[] password = regPassword.getPassword();
+            if (username.isEmpty() || password.length == 0) {
                 JOptionPane.showMessageDialog(this, "Username and password cannot be empty.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
-            if (registerUser(username, password)) {
-                JOptionPane.showMessageDialog(this, "Registration successful! Please login.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                tabbedPane.setSelectedIndex(0);
-            } else {
-                JOptionPane.showMessageDialog(this, "Registration failed. Username may already exist.", "Error", JOptionPane.ERROR_MESSAGE);
+            if (authService == null) {
+                JOptionPane.showMessageDialog(this, "Not connected to the database.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
             }
+            registerButton.setEnabled(false);
+            dataExecutor.submit("registration", null, () -> {
+                try {
+                    return authService.register(username, password);
+                } finally {
+                    Arrays.fill(password, '\0');
+                }
+            }, registered -> {
+                registerButton.setEnabled(true);
+                if (registered) {
+                    JOptionPane.showMessageDialog(this, "Registration successful! Please login.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    tabbedPane.setSelectedIndex(0);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Registration failed. Username may already exist.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }, ex -> {
+                registerButton.setEnabled(true);
+                LOG.log(Level.WARNING, "Registration failed", ex);
+                JOptionPane.showMessageDialog(this, "Registration failed. Username may already exist.", "Error", JOptionPane.ERROR_MESSAGE);
+            });
         });
     }
 
@@ -240,21 +371,12 @@ public class PetAdoptionApp extends JFrame {
                     "3. Use the 'Adopters' tab to add, edit, or delete adopters.\n" +
                     "4. Use the 'Adoptions' tab to create new adoptions.\n" +
                     "5. Use the 'Update Status' tab to update adoption status.\n" +
-                    "6. Logout when done.";
+                    "6. Use the 'Reports' tab for adoption figures per species and month.\n" +
+                    "7. Logout when done.";
             JOptionPane.showMessageDialog(this, helpContent, "Help", JOptionPane.INFORMATION_MESSAGE);
         });
 
-        logoutButton.addActionListener(e -> {
-            int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to logout?", "Confirm Logout", JOptionPane.YES_NO_OPTION);
-            if (confirm == JOptionPane.YES_OPTION) {
-                for (int i = 2; i < tabbedPane.getTabCount(); i++) {
-                    tabbedPane.setEnabledAt(i, false);
-                }
-                tabbedPane.setSelectedIndex(0);
-                loginUsername.setText("");
-                loginPassword.setText("");
-            }
-        });
+        logoutButton.addActionListener(e -> confirmLogout());
     }
 
     private void createPetPanel() {
@@ -300,12 +422,35 @@ public class PetAdoptionApp extends JFrame {
         tablePanel.setBorder(BorderFactory.createTitledBorder("Pet List"));
         tablePanel.setOpaque(false);
 
-        petTable = new JTable();
+        petTable = new JTable(petModel);
         petTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         petTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        new ActionColumn(petTable,
+                new ActionColumn.Action("Edit", EDIT_COLOR, this::editPet),
+                deleteAction(this::confirmDelete, this::deletePet),
+                new ActionColumn.Action("Adopt", ADOPT_COLOR, petId -> startAdoption(petId, null))).install();
+        installHeaderSort(petTable, petModel);
+
+        Timer petSearchTimer = createSearchTimer(this::applyPetSearch);
+        petSearchName = createSearchField(12, petSearchTimer);
+        petSearchSpecies = createSearchField(8, petSearchTimer);
+        petSearchMinAge = createSearchField(3, petSearchTimer);
+        petSearchMaxAge = createSearchField(3, petSearchTimer);
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchPanel.setOpaque(false);
+        searchPanel.add(new JLabel("Name starts with:"));
+        searchPanel.add(petSearchName);
+        searchPanel.add(new JLabel("Species:"));
+        searchPanel.add(petSearchSpecies);
+        searchPanel.add(new JLabel("Age from:"));
+        searchPanel.add(petSearchMinAge);
+        searchPanel.add(new JLabel("to:"));
+        searchPanel.add(petSearchMaxAge);
 
         JScrollPane scrollPane = new JScrollPane(petTable);
+        tablePanel.add(searchPanel, BorderLayout.NORTH);
         tablePanel.add(scrollPane, BorderLayout.CENTER);
+        tablePanel.add(createBusyIndicator("pets"), BorderLayout.SOUTH);
 
         petPanel.add(inputPanel, BorderLayout.NORTH);
         petPanel.add(tablePanel, BorderLayout.CENTER);
@@ -343,17 +488,10 @@ public class PetAdoptionApp extends JFrame {
         petTable.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting() && petTable.getSelectedRow() != -1) {
                 int selectedRow = petTable.getSelectedRow();
-                petIdToUpdate.setText(petTable.getValueAt(selectedRow, 0).toString());
-                petName.setText(petTable.getValueAt(selectedRow, 1).toString());
-                petSpecies.setText(petTable.getValueAt(selectedRow, 2).toString());
-                petAge.setText(petTable.getValueAt(selectedRow, 3).toString());
-                isEditingPet = true;
-                addPetButton.setEnabled(false);
-                editPetButton.setText("Save Changes");
+                beginPetEdit(petTable.getValueAt(selectedRow, 0), petTable.getValueAt(selectedRow, 1),
+                        petTable.getValueAt(selectedRow, 2), petTable.getValueAt(selectedRow, 3));
             }
         });
-
-        loadPets();
     }
 
     private void createAdopterPanel() {
@@ -399,12 +537,29 @@ public class PetAdoptionApp extends JFrame {
         tablePanel.setBorder(BorderFactory.createTitledBorder("Adopter List"));
         tablePanel.setOpaque(false);
 
-        adopterTable = new JTable();
+        adopterTable = new JTable(adopterModel);
         adopterTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         adopterTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        new ActionColumn(adopterTable,
+                new ActionColumn.Action("Edit", EDIT_COLOR, this::editAdopter),
+                deleteAction(this::confirmDelete, this::deleteAdopter),
+                new ActionColumn.Action("Adopt", ADOPT_COLOR, adopterId -> startAdoption(null, adopterId))).install();
+        installHeaderSort(adopterTable, adopterModel);
+
+        Timer adopterSearchTimer = createSearchTimer(this::applyAdopterSearch);
+        adopterSearchName = createSearchField(12, adopterSearchTimer);
+        adopterSearchPhone = createSearchField(10, adopterSearchTimer);
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchPanel.setOpaque(false);
+        searchPanel.add(new JLabel("First or last name starts with:"));
+        searchPanel.add(adopterSearchName);
+        searchPanel.add(new JLabel("Phone starts with:"));
+        searchPanel.add(adopterSearchPhone);
 
         JScrollPane scrollPane = new JScrollPane(adopterTable);
+        tablePanel.add(searchPanel, BorderLayout.NORTH);
         tablePanel.add(scrollPane, BorderLayout.CENTER);
+        tablePanel.add(createBusyIndicator("adopters"), BorderLayout.SOUTH);
 
         adopterPanel.add(inputPanel, BorderLayout.NORTH);
         adopterPanel.add(tablePanel, BorderLayout.CENTER);
@@ -442,17 +597,30 @@ public class PetAdoptionApp extends JFrame {
         adopterTable.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting() && adopterTable.getSelectedRow() != -1) {
                 int selectedRow = adopterTable.getSelectedRow();
-                adopterIdToUpdate.setText(adopterTable.getValueAt(selectedRow, 0).toString());
-                adopterFirstName.setText(adopterTable.getValueAt(selectedRow, 1).toString());
-                adopterLastName.setText(adopterTable.getValueAt(selectedRow, 2).toString());
-                adopterPhone.setText(adopterTable.getValueAt(selectedRow, 3).toString());
-                isEditingAdopter = true;
-                addAdopterButton.setEnabled(false);
-                editAdopterButton.setText("Save Changes");
+                beginAdopterEdit(adopterTable.getValueAt(selectedRow, 0), adopterTable.getValueAt(selectedRow, 1),
+                        adopterTable.getValueAt(selectedRow, 2), adopterTable.getValueAt(selectedRow, 3));
             }
         });
+    }
+
+    private void beginPetEdit(Object id, Object name, Object species, Object age) {
+        petIdToUpdate.setText(id.toString());
+        petName.setText(name.toString());
+        petSpecies.setText(species.toString());
+        petAge.setText(age.toString());
+        isEditingPet = true;
+        addPetButton.setEnabled(false);
+        editPetButton.setText("Save Changes");
+    }
 
-        loadAdopters();
+    private void beginAdopterEdit(Object id, Object firstName, Object lastName, Object phone) {
+        adopterIdToUpdate.setText(id.toString());
+        adopterFirstName.setText(firstName.toString());
+        adopterLastName.setText(lastName.toString());
+        adopterPhone.setText(phone.toString());
+        isEditingAdopter = true;
+        addAdopterButton.setEnabled(false);
+        editAdopterButton.setText("Save Changes");
     }
 
     private void createAdoptionPanel() {
@@ -479,24 +647,28 @@ public class PetAdoptionApp extends JFrame {
         tablePanel.setBorder(BorderFactory.createTitledBorder("Adoption List"));
         tablePanel.setOpaque(false);
 
-        adoptionTable = new JTable();
+        adoptionTable = new JTable(adoptionModel);
         adoptionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         adoptionTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
 
         JScrollPane scrollPane = new JScrollPane(adoptionTable);
         tablePanel.add(scrollPane, BorderLayout.CENTER);
+        tablePanel.add(createBusyIndicator("adoptions"), BorderLayout.SOUTH);
 
         adoptionPanel.add(inputPanel, BorderLayout.NORTH);
         adoptionPanel.add(tablePanel, BorderLayout.CENTER);
 
         addAdoptionButton.addActionListener(e -> {
-            if (validateAdoptionInput()) {
-                addAdoption();
-                clearAdoptionFields();
+            int petId, adopterId;
+            try {
+                petId = Integer.parseInt(adoptionPetId.getText().trim());
+                adopterId = Integer.parseInt(adoptionAdopterId.getText().trim());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Pet ID and Adopter ID must be numbers.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+                return;
             }
+            addAdoption(petId, adopterId);
         });
-
-        loadAdoptions();
     }
 
     private void createStatusPanel() {
@@ -520,53 +692,103 @@ public class PetAdoptionApp extends JFrame {
         tablePanel.setBorder(BorderFactory.createTitledBorder("Adoption List"));
         tablePanel.setOpaque(false);
 
-        statusTable = new JTable();
-        statusTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        statusTable = new JTable(statusModel);
+        statusTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         statusTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
 
         JScrollPane scrollPane = new JScrollPane(statusTable);
         tablePanel.add(scrollPane, BorderLayout.CENTER);
+        tablePanel.add(createBusyIndicator("status"), BorderLayout.SOUTH);
 
         statusPanel.add(inputPanel, BorderLayout.NORTH);
         statusPanel.add(tablePanel, BorderLayout.CENTER);
 
         updateStatusButton.addActionListener(e -> {
-            int selectedRow = statusTable.getSelectedRow();
-            if (selectedRow == -1) {
+            int[] selectedRows = statusTable.getSelectedRows();
+            if (selectedRows.length == 0) {
                 JOptionPane.showMessageDialog(this, "Please select an adoption to update.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
 
-            int adoptionId = (Integer) statusTable.getValueAt(selectedRow, 0);
+            // Rows of pages that have not loaded yet have no key; they are left out rather than waited for
+            List<Integer> adoptionIds = new ArrayList<>();
+            for (int selectedRow : selectedRows) {
+                int adoptionId = statusModel.getKeyAt(statusTable.convertRowIndexToModel(selectedRow));
+                if (adoptionId != -1) {
+                    adoptionIds.add(adoptionId);
+                }
+            }
+            if (adoptionIds.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "The selected adoptions are still loading. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             String newStatus = (String) statusComboBox.getSelectedItem();
 
-            try (Connection conn = getConnection()) {
-                String updateQuery = "UPDATE Adoptions SET status = ? WHERE adoption_id = ?";
-                PreparedStatement stmt = conn.prepareStatement(updateQuery);
-                stmt.setString(1, newStatus);
-                stmt.setInt(2, adoptionId);
-                int result = stmt.executeUpdate();
-
-                if (result > 0) {
-                    JOptionPane.showMessageDialog(this, "Status updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadAdoptionsForStatus();
-                    loadPets();
-                    loadAdopters();
-                    loadAdoptions();
+            // Updated adoptions whose pet or adopter could not be read have no row; the worker fills this before the EDT reads it
+            List<Integer> unresolvedIds = new ArrayList<>();
+            runInBackground("status", "adoptions.updateStatus", () -> {
+                List<Object[]> rows = new ArrayList<>();
+                for (Adoption adoption : adoptionService.updateStatuses(adoptionIds, newStatus)) {
+                    Object[] row = repository.toAdoptionRow(adoption);
+                    if (row != null) {
+                        rows.add(row);
+                    } else {
+                        unresolvedIds.add(adoption.getId());
+                    }
+                }
+                return rows;
+            }, rows -> {
+                applyAdoptionChanges(rows);
+                // Their table rows are read again from the database instead
+                adoptionModel.refreshRows(unresolvedIds);
+                statusModel.refreshRows(unresolvedIds);
+                int skipped = selectedRows.length - rows.size();
+                if (rows.isEmpty()) {
+                    JOptionPane.showMessageDialog(this, "Failed to update status. The adoptions no longer exist, their pets were deleted, or their pets already have a completed adoption.",
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                } else if (skipped > 0) {
+                    JOptionPane.showMessageDialog(this, "Updated " + rows.size() + " adoption(s). " + skipped
+                            + " were skipped: they no longer exist, are still loading, their pet was deleted, or it already has a completed adoption.",
+                            "Partially Updated", JOptionPane.WARNING_MESSAGE);
                 } else {
-                    JOptionPane.showMessageDialog(this, "Failed to update status.", "Error", JOptionPane.ERROR_MESSAGE);
+                    JOptionPane.showMessageDialog(this, "Status updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 }
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, "Database error: ");
         });
+    }
 
-        loadAdoptionsForStatus();
+    private void createReportsPanel() {
+        reportsPanel = new BackgroundPanel(new BorderLayout());
+        reportsPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        reportsView = new ReportsPanel(dataExecutor, reportService);
+        reportsPanel.add(reportsView, BorderLayout.CENTER);
+        reportsPanel.add(createBusyIndicator("reports"), BorderLayout.SOUTH);
     }
 
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        if (database == null) {
+            throw new SQLException("Not connected to the database.");
+        }
+        return database.getConnection();
+    }
+
+    private JProgressBar createBusyIndicator(String channel) {
+        JProgressBar indicator = new JProgressBar();
+        indicator.setIndeterminate(true);
+        indicator.setVisible(false);
+        busyIndicators.put(channel, indicator);
+        return indicator;
+    }
+
+    private <T> void runInBackground(String channel, String operation, DataAccessExecutor.Task<T> task, Consumer<T> onSuccess, String errorMessage) {
+        dataExecutor.submit(operation, channel, null, task, onSuccess, e -> {
+            LOG.log(Level.WARNING, operation + " failed", e);
+            JOptionPane.showMessageDialog(this, errorMessage + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private <T> void runInBackground(String channel, String operation, DataAccessExecutor.Task<T> task, Consumer<T> onSuccess) {
+        runInBackground(channel, operation, task, onSuccess, "Database error: ");
     }
 
     private void styleButton(JButton button) {
@@ -594,11 +816,26 @@ public class PetAdoptionApp extends JFrame {
         JMenuItem adoptersItem = new JMenuItem("Adopters");
         JMenuItem adoptionsItem = new JMenuItem("Adoptions");
         JMenuItem statusItem = new JMenuItem("Update Status");
+        JMenuItem reportsItem = new JMenuItem("Reports");
 
         managementMenu.add(petsItem);
         managementMenu.add(adoptersItem);
         managementMenu.add(adoptionsItem);
         managementMenu.add(statusItem);
+        managementMenu.addSeparator();
+        managementMenu.add(reportsItem);
+
+        JMenu dataMenu = new JMenu("Data");
+        JMenuItem importPetsItem = new JMenuItem("Import Pets...");
+        JMenuItem exportPetsItem = new JMenuItem("Export Pets...");
+        JMenuItem importAdoptersItem = new JMenuItem("Import Adopters...");
+        JMenuItem exportAdoptersItem = new JMenuItem("Export Adopters...");
+
+        dataMenu.add(importPetsItem);
+        dataMenu.add(exportPetsItem);
+        dataMenu.addSeparator();
+        dataMenu.add(importAdoptersItem);
+        dataMenu.add(exportAdoptersItem);
 
         JMenu helpMenu = new JMenu("Help");
         JMenuItem aboutItem = new JMenuItem("About");
@@ -609,22 +846,13 @@ public class PetAdoptionApp extends JFrame {
 
         menuBar.add(fileMenu);
         menuBar.add(managementMenu);
+        menuBar.add(dataMenu);
         menuBar.add(helpMenu);
 
         setJMenuBar(menuBar);
 
         homeItem.addActionListener(e -> tabbedPane.setSelectedIndex(2));
-        logoutItem.addActionListener(e -> {
-            int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to logout?", "Confirm Logout", JOptionPane.YES_NO_OPTION);
-            if (confirm == JOptionPane.YES_OPTION) {
-                for (int i = 2; i < tabbedPane.getTabCount(); i++) {
-                    tabbedPane.setEnabledAt(i, false);
-                }
-                tabbedPane.setSelectedIndex(0);
-                loginUsername.setText("");
-                loginPassword.setText("");
-            }
-        });
+        logoutItem.addActionListener(e -> confirmLogout());
         exitItem.addActionListener(e -> {
             int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to exit?", "Confirm Exit", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) System.exit(0);
@@ -634,6 +862,12 @@ public class PetAdoptionApp extends JFrame {
         adoptersItem.addActionListener(e -> tabbedPane.setSelectedIndex(4));
         adoptionsItem.addActionListener(e -> tabbedPane.setSelectedIndex(5));
         statusItem.addActionListener(e -> tabbedPane.setSelectedIndex(6));
+        reportsItem.addActionListener(e -> tabbedPane.setSelectedIndex(7));
+
+        importPetsItem.addActionListener(e -> importCsv("pets", 3));
+        exportPetsItem.addActionListener(e -> exportCsv("pets", 3));
+        importAdoptersItem.addActionListener(e -> importCsv("adopters", 4));
+        exportAdoptersItem.addActionListener(e -> exportCsv("adopters", 4));
 
         aboutItem.addActionListener(e -> JOptionPane.showMessageDialog(this, "Pet Adoption Management System\nVersion 1.0\nDeveloped by: Shreishta Manoj", "About", JOptionPane.INFORMATION_MESSAGE));
         helpItem.addActionListener(e -> {
@@ -642,395 +876,603 @@ public class PetAdoptionApp extends JFrame {
                     "3. Use the 'Adopters' tab to add, edit, or delete adopters.\n" +
                     "4. Use the 'Adoptions' tab to create new adoptions.\n" +
                     "5. Use the 'Update Status' tab to update adoption status.\n" +
-                    "6. Logout when done.";
+                    "6. Use the 'Reports' tab for adoption figures per species and month.\n" +
+                    "7. Logout when done.";
             JOptionPane.showMessageDialog(this, helpContent, "Help", JOptionPane.INFORMATION_MESSAGE);
         });
     }
 
-    private boolean validateCredentials(String username, String password) {
-        String query = "SELECT * FROM Users WHERE username = ? AND password = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            stmt.setString(2, password);
-            ResultSet rs = stmt.executeQuery();
-            return rs.next();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+    private void importCsv(String channel, int tabIndex) {
+        if (!tabbedPane.isEnabledAt(tabIndex)) {
+            JOptionPane.showMessageDialog(this, "Please login first.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
-    }
-
-    private boolean registerUser(String username, String password) {
-        String query = "INSERT INTO Users (user_id, username, password, role) VALUES (user_seq.NEXTVAL, ?, ?, 'user')";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, username);
-            stmt.setString(2, password);
-            stmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        ensureTab(tabIndex);
+        JProgressBar progressBar = busyIndicators.get(channel);
+        progressBar.setIndeterminate(false);
+        progressBar.setStringPainted(true);
+        progressBar.setValue(0);
+        tabbedPane.setSelectedIndex(tabIndex);
+        BulkTransfer.ProgressListener listener = (read, total) -> SwingUtilities.invokeLater(
+                () -> progressBar.setValue(total == 0 ? 100 : (int) (100 * read / total)));
+        runInBackground(channel, channel + ".import", () -> "pets".equals(channel)
+                ? bulkTransfer.importPets(file, listener)
+                : bulkTransfer.importAdopters(file, listener), result -> {
+            StringBuilder message = new StringBuilder("Imported " + result.getImported() + " rows, rejected " + result.getRejected() + ".");
+            for (String error : result.getErrors()) {
+                message.append("\n").append(error);
+            }
+            JOptionPane.showMessageDialog(this, message.toString(), "Import", result.getRejected() == 0
+                    ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+            if ("pets".equals(channel)) {
+                loadPets();
+            } else {
+                loadAdopters();
+            }
+            rebuildSearchIndex(channel);
+        }, "Import failed: ");
     }
 
-    private boolean validatePetInput() {
-        if (petName.getText().trim().isEmpty() || petSpecies.getText().trim().isEmpty() || petAge.getText().trim().isEmpty()) {
-            JOptionPane.showMessageDialog(this, "All pet fields must be filled.", "Validation Error", JOptionPane.ERROR_MESSAGE);
-            return false;
-        }
-        try {
-            int age = Integer.parseInt(petAge.getText().trim());
-            if (age < 0) {
-                JOptionPane.showMessageDialog(this, "Age must be positive.", "Validation Error", JOptionPane.ERROR_MESSAGE);
-                return false;
+    // Imports bypass the repository, so the index is reread from the table; searches use SQL until it is ready
+    private void rebuildSearchIndex(String channel) {
+        dataExecutor.submit("search-index." + channel, "search-index", null, () -> {
+            if ("pets".equals(channel)) {
+                repository.rebuildPetIndex();
+            } else {
+                repository.rebuildAdopterIndex();
             }
-        } catch (NumberFormatException e) {
-            JOptionPane.showMessageDialog(this, "Age must be a number.", "Validation Error", JOptionPane.ERROR_MESSAGE);
-            return false;
-        }
-        return true;
+            return null;
+        }, ignored -> {
+            // A search typed while the index loaded went to SQL; rerun it against the index
+            if ("pets".equals(channel) && petSearchName != null) {
+                applyPetSearch();
+            } else if ("adopters".equals(channel) && adopterSearchName != null) {
+                applyAdopterSearch();
+            }
+        }, e -> LOG.log(Level.WARNING, "Could not build the " + channel + " search index", e));
     }
 
-    private boolean validateAdopterInput() {
-        if (adopterFirstName.getText().trim().isEmpty() || adopterLastName.getText().trim().isEmpty() || adopterPhone.getText().trim().isEmpty()) {
-            JOptionPane.showMessageDialog(this, "All adopter fields must be filled.", "Validation Error", JOptionPane.ERROR_MESSAGE);
-            return false;
+    private void exportCsv(String channel, int tabIndex) {
+        if (!tabbedPane.isEnabledAt(tabIndex)) {
+            JOptionPane.showMessageDialog(this, "Please login first.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
-        return true;
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File(channel + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        runInBackground(channel, channel + ".export", () -> "pets".equals(channel)
+                ? bulkTransfer.exportPets(file)
+                : bulkTransfer.exportAdopters(file), rows ->
+                JOptionPane.showMessageDialog(this, "Exported " + rows + " rows to " + file + ".", "Export", JOptionPane.INFORMATION_MESSAGE),
+                "Export failed: ");
     }
 
-    private boolean validateAdoptionInput() {
-        try {
-            int petId = Integer.parseInt(adoptionPetId.getText().trim());
-            int adopterId = Integer.parseInt(adoptionAdopterId.getText().trim());
-            if (!checkIfExists("Pets", "pet_id", petId) || !checkIfExists("Adopters", "adopter_id", adopterId) || isPetAdopted(petId)) {
-                JOptionPane.showMessageDialog(this, "Invalid Pet ID, Adopter ID, or pet already adopted.", "Validation Error", JOptionPane.ERROR_MESSAGE);
-                return false;
+    private void confirmLogout() {
+        int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to logout?", "Confirm Logout", JOptionPane.YES_NO_OPTION);
+        if (confirm == JOptionPane.YES_OPTION) {
+            session = null;
+            setTitle(TITLE);
+            for (int i = 2; i < tabbedPane.getTabCount(); i++) {
+                tabbedPane.setEnabledAt(i, false);
             }
-            return true;
-        } catch (NumberFormatException e) {
-            JOptionPane.showMessageDialog(this, "Pet ID and Adopter ID must be numbers.", "Validation Error", JOptionPane.ERROR_MESSAGE);
-            return false;
+            tabbedPane.setSelectedIndex(0);
+            loginUsername.setText("");
+            loginPassword.setText("");
         }
     }
 
-    private boolean checkIfExists(String table, String column, int id) {
-        String query = "SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-            return rs.next() && rs.getInt(1) > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private boolean validatePetInput() {
+        String error = InputValidation.checkPet(petName.getText(), petSpecies.getText(), petAge.getText());
+        if (error != null) {
+            JOptionPane.showMessageDialog(this, error, "Validation Error", JOptionPane.ERROR_MESSAGE);
             return false;
         }
+        return true;
     }
 
-    private boolean isPetAdopted(int petId) {
-        String query = "SELECT COUNT(*) FROM Adoptions WHERE pet_id = ? AND status = 'Completed'";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, petId);
-            ResultSet rs = stmt.executeQuery();
-            return rs.next() && rs.getInt(1) > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private boolean validateAdopterInput() {
+        String error = InputValidation.checkAdopter(adopterFirstName.getText(), adopterLastName.getText(), adopterPhone.getText());
+        if (error != null) {
+            JOptionPane.showMessageDialog(this, error, "Validation Error", JOptionPane.ERROR_MESSAGE);
             return false;
         }
+        return true;
     }
 
     private void addPet() {
-        String query = "INSERT INTO Pets (pet_id, pet_name, species, age) VALUES (pet_seq.NEXTVAL, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, petName.getText().trim());
-            stmt.setString(2, petSpecies.getText().trim());
-            stmt.setInt(3, Integer.parseInt(petAge.getText().trim()));
-            stmt.executeUpdate();
+        String name = petName.getText().trim();
+        String species = petSpecies.getText().trim();
+        int age = Integer.parseInt(petAge.getText().trim());
+        runInBackground("pets", "pets.add", () -> repository.addPet(name, species, age), pet -> {
             JOptionPane.showMessageDialog(this, "Pet added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadPets();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to add pet: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            petModel.upsertRow(pet.toRow());
+        }, "Failed to add pet: ");
     }
 
     private void updatePet() {
-        String query = "UPDATE Pets SET pet_name = ?, species = ?, age = ? WHERE pet_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, petName.getText().trim());
-            stmt.setString(2, petSpecies.getText().trim());
-            stmt.setInt(3, Integer.parseInt(petAge.getText().trim()));
-            stmt.setInt(4, Integer.parseInt(petIdToUpdate.getText().trim()));
-            stmt.executeUpdate();
+        String name = petName.getText().trim();
+        String species = petSpecies.getText().trim();
+        int age = Integer.parseInt(petAge.getText().trim());
+        int petId = Integer.parseInt(petIdToUpdate.getText().trim());
+        runInBackground("pets", "pets.update", () -> repository.updatePet(petId, name, species, age), pet -> {
+            if (pet == null) {
+                JOptionPane.showMessageDialog(this, "No pet found with ID: " + petId, "Error", JOptionPane.ERROR_MESSAGE);
+                petModel.deleteRow(petId);
+                return;
+            }
             JOptionPane.showMessageDialog(this, "Pet updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadPets();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to update pet: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            petModel.upsertRow(pet.toRow());
+            adoptionModel.refreshRowsFor(1, petId);
+            statusModel.refreshRowsFor(1, petId);
+        }, "Failed to update pet: ");
+    }
+
+    // Loads the pet fresh, since the table row may be older than another workstation's edit
+    private void editPet(int petId) {
+        runInBackground("pets", "pets.find", () -> repository.findPet(petId), pet -> {
+            if (pet == null) {
+                JOptionPane.showMessageDialog(this, "No pet found with ID: " + petId, "Error", JOptionPane.ERROR_MESSAGE);
+                petModel.deleteRow(petId);
+                return;
+            }
+            beginPetEdit(pet.getId(), pet.getName(), pet.getSpecies(), pet.getAge());
+            petName.requestFocusInWindow();
+        }, "Failed to load pet: ");
     }
 
     private void deletePet(int petId) {
-        String query = "DELETE FROM Pets WHERE pet_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, petId);
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
+        runInBackground("pets", "pets.delete", () -> repository.deletePet(petId), deleted -> {
+            if (deleted) {
                 JOptionPane.showMessageDialog(this, "Pet deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadPets();
+                petModel.deleteRow(petId);
             } else {
                 JOptionPane.showMessageDialog(this, "No pet found with ID: " + petId, "Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to delete pet: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, "Failed to delete pet: ");
     }
 
     private void addAdopter() {
-        String query = "INSERT INTO Adopters (adopter_id, first_name, last_name, phone) VALUES (adopter_seq.NEXTVAL, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, adopterFirstName.getText().trim());
-            stmt.setString(2, adopterLastName.getText().trim());
-            stmt.setString(3, adopterPhone.getText().trim());
-            stmt.executeUpdate();
+        String firstName = adopterFirstName.getText().trim();
+        String lastName = adopterLastName.getText().trim();
+        String phone = adopterPhone.getText().trim();
+        runInBackground("adopters", "adopters.add", () -> repository.addAdopter(firstName, lastName, phone), adopter -> {
             JOptionPane.showMessageDialog(this, "Adopter added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadAdopters();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to add adopter: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            adopterModel.upsertRow(adopter.toRow());
+        }, "Failed to add adopter: ");
     }
 
     private void updateAdopter() {
-        String query = "UPDATE Adopters SET first_name = ?, last_name = ?, phone = ? WHERE adopter_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, adopterFirstName.getText().trim());
-            stmt.setString(2, adopterLastName.getText().trim());
-            stmt.setString(3, adopterPhone.getText().trim());
-            stmt.setInt(4, Integer.parseInt(adopterIdToUpdate.getText().trim()));
-            stmt.executeUpdate();
+        String firstName = adopterFirstName.getText().trim();
+        String lastName = adopterLastName.getText().trim();
+        String phone = adopterPhone.getText().trim();
+        int adopterId = Integer.parseInt(adopterIdToUpdate.getText().trim());
+        runInBackground("adopters", "adopters.update", () -> repository.updateAdopter(adopterId, firstName, lastName, phone), adopter -> {
+            if (adopter == null) {
+                JOptionPane.showMessageDialog(this, "No adopter found with ID: " + adopterId, "Error", JOptionPane.ERROR_MESSAGE);
+                adopterModel.deleteRow(adopterId);
+                return;
+            }
             JOptionPane.showMessageDialog(this, "Adopter updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadAdopters();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to update adopter: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            adopterModel.upsertRow(adopter.toRow());
+            adoptionModel.refreshRowsFor(3, adopterId);
+            statusModel.refreshRowsFor(3, adopterId);
+        }, "Failed to update adopter: ");
+    }
+
+    private void editAdopter(int adopterId) {
+        runInBackground("adopters", "adopters.find", () -> repository.findAdopter(adopterId), adopter -> {
+            if (adopter == null) {
+                JOptionPane.showMessageDialog(this, "No adopter found with ID: " + adopterId, "Error", JOptionPane.ERROR_MESSAGE);
+                adopterModel.deleteRow(adopterId);
+                return;
+            }
+            beginAdopterEdit(adopter.getId(), adopter.getFirstName(), adopter.getLastName(), adopter.getPhone());
+            adopterFirstName.requestFocusInWindow();
+        }, "Failed to load adopter: ");
+    }
+
+    // The Delete button of the pet and adopter tables: each click asks once and, if confirmed, deletes that row once
+    static ActionColumn.Action deleteAction(BooleanSupplier confirm, IntConsumer delete) {
+        return new ActionColumn.Action("Delete", Color.RED, id -> {
+            if (confirm.getAsBoolean()) {
+                delete.accept(id);
+            }
+        });
+    }
+
+    private boolean confirmDelete() {
+        return JOptionPane.showConfirmDialog(this, "Are you sure you want to delete this record?", "Confirm Delete",
+                JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION;
+    }
+
+    // Opens the Adoptions tab with the given pet or adopter filled in, leaving the other id to the user
+    private void startAdoption(Integer petId, Integer adopterId) {
+        ensureTab(5);
+        if (petId != null) {
+            adoptionPetId.setText(petId.toString());
+        }
+        if (adopterId != null) {
+            adoptionAdopterId.setText(adopterId.toString());
         }
+        tabbedPane.setSelectedIndex(5);
+        (adoptionPetId.getText().trim().isEmpty() ? adoptionPetId : adoptionAdopterId).requestFocusInWindow();
     }
 
     private void deleteAdopter(int adopterId) {
-        String query = "DELETE FROM Adopters WHERE adopter_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, adopterId);
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
+        runInBackground("adopters", "adopters.delete", () -> repository.deleteAdopter(adopterId), deleted -> {
+            if (deleted) {
                 JOptionPane.showMessageDialog(this, "Adopter deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadAdopters();
+                adopterModel.deleteRow(adopterId);
             } else {
                 JOptionPane.showMessageDialog(this, "No adopter found with ID: " + adopterId, "Error", JOptionPane.ERROR_MESSAGE);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to delete adopter: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, "Failed to delete adopter: ");
     }
 
-    private void addAdoption() {
-        String query = "INSERT INTO Adoptions (adoption_id, adopter_id, pet_id, adoption_date, status) VALUES (adoption_seq.NEXTVAL, ?, ?, SYSDATE, 'Pending')";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, Integer.parseInt(adoptionAdopterId.getText().trim()));
-            stmt.setInt(2, Integer.parseInt(adoptionPetId.getText().trim()));
-            stmt.executeUpdate();
+    private void addAdoption(int petId, int adopterId) {
+        runInBackground("adoptions", "adoptions.add", () -> {
+            Adoption adoption = adoptionService.adopt(petId, adopterId);
+            return adoption == null ? null : repository.toAdoptionRow(adoption);
+        }, row -> {
+            if (row == null) {
+                JOptionPane.showMessageDialog(this, "Invalid Pet ID, Adopter ID, or pet already adopted.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             JOptionPane.showMessageDialog(this, "Adoption added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadAdoptions();
-            loadAdoptionsForStatus();
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to add adoption: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            clearAdoptionFields();
+            adoptionModel.upsertRow(row);
+            statusModel.upsertRow(row.clone());
+        }, "Failed to add adoption: ");
+    }
+
+    private void toggleDiagnostics() {
+        if (diagnosticsPanel == null) {
+            diagnosticsPanel = new DiagnosticsPanel(metrics);
+        }
+        int index = tabbedPane.indexOfComponent(diagnosticsPanel);
+        if (index >= 0) {
+            tabbedPane.removeTabAt(index);
+        } else {
+            tabbedPane.addTab("Diagnostics", diagnosticsPanel);
+            tabbedPane.setSelectedComponent(diagnosticsPanel);
         }
     }
 
-    private void loadPets() {
-        String query = "SELECT p.pet_id, p.pet_name, p.species, p.age " +
-                       "FROM Pets p " +
-                       "WHERE NOT EXISTS (SELECT 1 FROM Adoptions a WHERE a.pet_id = p.pet_id AND a.status = 'Completed') " +
-                       "ORDER BY p.pet_id";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            ResultSet rs = stmt.executeQuery();
-            DefaultTableModel model = buildTableModel(rs);
-            model.addColumn("Actions");
-            petTable.setModel(model);
-            TableColumn actionColumn = petTable.getColumnModel().getColumn(petTable.getColumnCount() - 1);
-            actionColumn.setCellRenderer(new ButtonRenderer());
-            actionColumn.setCellEditor(new ButtonEditor(new JCheckBox(), petTable, this::deletePet));
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to load pets: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    // Builds the remaining management tabs one per event, so the EDT keeps handling input in between
+    private void prefetchTabs() {
+        for (int i = 3; i < tabbedPane.getTabCount(); i++) {
+            int index = i;
+            SwingUtilities.invokeLater(() -> ensureTab(index));
         }
     }
 
-    private void loadAdopters() {
-        String query = "SELECT a.adopter_id, a.first_name, a.last_name, a.phone " +
-                       "FROM Adopters a " +
-                       "WHERE NOT EXISTS (SELECT 1 FROM Adoptions ad WHERE ad.adopter_id = a.adopter_id AND ad.status = 'Completed') " +
-                       "ORDER BY a.adopter_id";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            ResultSet rs = stmt.executeQuery();
-            DefaultTableModel model = buildTableModel(rs);
-            model.addColumn("Actions");
-            adopterTable.setModel(model);
-            TableColumn actionColumn = adopterTable.getColumnModel().getColumn(adopterTable.getColumnCount() - 1);
-            actionColumn.setCellRenderer(new ButtonRenderer());
-            actionColumn.setCellEditor(new ButtonEditor(new JCheckBox(), adopterTable, this::deleteAdopter));
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to load adopters: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    // Builds a management tab and requests its first page the first time it is shown or prefetched
+    private void ensureTab(int index) {
+        if (index < 3 || builtTabs.get(index)) {
+            return;
+        }
+        builtTabs.set(index);
+        switch (index) {
+            case 3:
+                createPetPanel();
+                tabbedPane.setComponentAt(index, petPanel);
+                loadPets();
+                break;
+            case 4:
+                createAdopterPanel();
+                tabbedPane.setComponentAt(index, adopterPanel);
+                loadAdopters();
+                break;
+            case 5:
+                createAdoptionPanel();
+                tabbedPane.setComponentAt(index, adoptionPanel);
+                loadAdoptions();
+                break;
+            case 6:
+                createStatusPanel();
+                tabbedPane.setComponentAt(index, statusPanel);
+                loadAdoptionsForStatus();
+                break;
+            case 7:
+                createReportsPanel();
+                tabbedPane.setComponentAt(index, reportsPanel);
+                reportsView.reload();
+                break;
+            default:
+                break;
         }
     }
 
+    private void loadPets() {
+        petModel.reload();
+    }
+
+    private void loadAdopters() {
+        adopterModel.reload();
+    }
+
     private void loadAdoptions() {
-        String query = "SELECT a.adoption_id, a.pet_id, p.pet_name, a.adopter_id, ad.first_name || ' ' || ad.last_name AS adopter_name, a.adoption_date, a.status " +
-                       "FROM Adoptions a " +
-                       "JOIN Pets p ON a.pet_id = p.pet_id " +
-                       "JOIN Adopters ad ON a.adopter_id = ad.adopter_id " +
-                       "ORDER BY a.adoption_id";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            ResultSet rs = stmt.executeQuery();
-            adoptionTable.setModel(buildTableModel(rs));
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to load adoptions: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        adoptionModel.reload();
     }
 
     private void loadAdoptionsForStatus() {
-        String query = "SELECT a.adoption_id, a.pet_id, p.pet_name, a.adopter_id, ad.first_name || ' ' || ad.last_name AS adopter_name, a.adoption_date, a.status " +
-                       "FROM Adoptions a " +
-                       "JOIN Pets p ON a.pet_id = p.pet_id " +
-                       "JOIN Adopters ad ON a.adopter_id = ad.adopter_id " +
-                       "WHERE a.status != 'Completed' " +
-                       "ORDER BY a.adoption_id";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            ResultSet rs = stmt.executeQuery();
-            statusTable.setModel(buildTableModel(rs));
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to load adoptions for status: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        statusModel.reload();
     }
 
-    private void clearPetFields() {
-        petName.setText("");
-        petSpecies.setText("");
-        petAge.setText("");
-        petIdToUpdate.setText("");
+    private PagedTableModel createPetModel() {
+        PagedTableModel model = new PagedTableModel("pets", "pets", dataExecutor, this::getConnection, dialect,
+                "SELECT p.pet_id, p.pet_name, p.species, p.age FROM Pets p",
+                "p.deleted_at IS NULL AND NOT EXISTS (SELECT 1 FROM Adoptions a WHERE a.pet_id = p.pet_id AND a.status = 'Completed')",
+                "p.pet_id", new String[]{"PET_ID", "PET_NAME", "SPECIES", "AGE"}, "Actions", PAGE_SIZE, MAX_CACHED_PAGES);
+        model.setSortExpressions("p.pet_id", "p.pet_name", "p.species", "p.age");
+        return model;
     }
 
-    private void clearAdopterFields() {
-        adopterFirstName.setText("");
-        adopterLastName.setText("");
-        adopterPhone.setText("");
-        adopterIdToUpdate.setText("");
+    private PagedTableModel createAdopterModel() {
+        PagedTableModel model = new PagedTableModel("adopters", "adopters", dataExecutor, this::getConnection, dialect,
+                "SELECT a.adopter_id, a.first_name, a.last_name, a.phone FROM Adopters a",
+                "a.deleted_at IS NULL AND NOT EXISTS (SELECT 1 FROM Adoptions ad WHERE ad.adopter_id = a.adopter_id AND ad.status = 'Completed')",
+                "a.adopter_id", new String[]{"ADOPTER_ID", "FIRST_NAME", "LAST_NAME", "PHONE"}, "Actions", PAGE_SIZE, MAX_CACHED_PAGES);
+        model.setSortExpressions("a.adopter_id", "a.first_name", "a.last_name", "a.phone");
+        return model;
     }
 
-    private void clearAdoptionFields() {
-        adoptionPetId.setText("");
-        adoptionAdopterId.setText("");
+    // Search fields restart the timer on every keystroke, so the query only runs once typing pauses
+    private Timer createSearchTimer(Runnable search) {
+        Timer timer = new Timer(SEARCH_DELAY_MS, e -> search.run());
+        timer.setRepeats(false);
+        return timer;
     }
 
-    private DefaultTableModel buildTableModel(ResultSet rs) throws SQLException {
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnCount = metaData.getColumnCount();
-        String[] columnNames = new String[columnCount];
-        for (int i = 1; i <= columnCount; i++) {
-            columnNames[i - 1] = metaData.getColumnName(i);
-        }
-        List<Object[]> data = new ArrayList<>();
-        while (rs.next()) {
-            Object[] row = new Object[columnCount];
-            for (int i = 1; i <= columnCount; i++) {
-                if (metaData.getColumnTypeName(i).equals("NUMBER")) {
-                    row[i - 1] = rs.getInt(i);
-                } else {
-                    row[i - 1] = rs.getObject(i);
-                }
+    private JTextField createSearchField(int columns, Timer searchTimer) {
+        JTextField field = new JTextField(columns);
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
             }
-            data.add(row);
+        });
+        return field;
+    }
+
+    private void applyPetSearch() {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        String name = petSearchName.getText().trim();
+        if (!name.isEmpty() && !addIndexedCondition(repository.getPetIndex(), name, "p.pet_id", conditions, parameters,
+                ShelterRepository.PET_NAME_FIELD)) {
+            conditions.add("p.pet_name_key LIKE ? ESCAPE '\\'");
+            parameters.add(prefixPattern(name));
+        }
+        String species = petSearchSpecies.getText().trim();
+        if (!species.isEmpty()) {
+            conditions.add("p.species = ?");
+            parameters.add(species);
         }
-        return new DefaultTableModel(data.toArray(new Object[0][0]), columnNames) {
+        Integer minAge = parseSearchNumber(petSearchMinAge);
+        if (minAge != null) {
+            conditions.add("p.age >= ?");
+            parameters.add(minAge);
+        }
+        Integer maxAge = parseSearchNumber(petSearchMaxAge);
+        if (maxAge != null) {
+            conditions.add("p.age <= ?");
+            parameters.add(maxAge);
+        }
+        petModel.setSearch(conditions.isEmpty() ? null : String.join(" AND ", conditions), parameters.toArray());
+    }
+
+    private void applyAdopterSearch() {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        String name = adopterSearchName.getText().trim();
+        if (!name.isEmpty() && !addIndexedCondition(repository.getAdopterIndex(), name, "a.adopter_id", conditions, parameters,
+                ShelterRepository.ADOPTER_FIRST_NAME_FIELD, ShelterRepository.ADOPTER_LAST_NAME_FIELD)) {
+            conditions.add("(a.first_name_key LIKE ? ESCAPE '\\' OR a.last_name_key LIKE ? ESCAPE '\\')");
+            parameters.add(prefixPattern(name));
+            parameters.add(prefixPattern(name));
+        }
+        String phone = adopterSearchPhone.getText().trim();
+        if (!phone.isEmpty() && !addIndexedCondition(repository.getAdopterIndex(), phone, "a.adopter_id", conditions, parameters,
+                ShelterRepository.ADOPTER_PHONE_FIELD)) {
+            conditions.add("a.phone LIKE ? ESCAPE '\\'");
+            parameters.add(escapeLike(phone) + "%");
+        }
+        adopterModel.setSearch(conditions.isEmpty() ? null : String.join(" AND ", conditions), parameters.toArray());
+    }
+
+    /**
+     * Resolves a search box through the in-memory index (prefix, substring and typo-tolerant matches) into
+     * an id list. Returns false while the index is still loading or when too many rows match to list them.
+     */
+    private static boolean addIndexedCondition(SearchIndex index, String text, String keyColumn, List<String> conditions,
+                                               List<Object> parameters, int... fields) {
+        if (!index.isReady()) {
+            return false;
+        }
+        int[] ids = index.search(text, MAX_INDEXED_MATCHES, fields);
+        if (ids == null) {
+            return false;
+        }
+        if (ids.length == 0) {
+            conditions.add("1 = 0");
+            return true;
+        }
+        conditions.add(keyColumn + " IN (" + String.join(", ", Collections.nCopies(ids.length, "?")) + ")");
+        for (int id : ids) {
+            parameters.add(id);
+        }
+        return true;
+    }
+
+    // Matches the upper-cased *_key columns
+    private static String prefixPattern(String text) {
+        return escapeLike(text.toUpperCase()) + "%";
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Blank or unparseable numbers leave that bound open
+    private static Integer parseSearchNumber(JTextField field) {
+        try {
+            return Integer.valueOf(field.getText().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Clicking a sortable column header sorts by it; clicking it again reverses the order
+    private void installHeaderSort(JTable table, PagedTableModel model) {
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == getColumnCount() - 1;
+            public void mouseClicked(MouseEvent e) {
+                int column = table.convertColumnIndexToModel(table.columnAtPoint(e.getPoint()));
+                if (column < 0 || !model.isSortable(column)) {
+                    return;
+                }
+                model.setSort(column, column != model.getSortColumn() || !model.isAscending());
+                updateSortIndicators(table, model);
             }
-        };
+        });
+        updateSortIndicators(table, model);
     }
 
-    class ButtonRenderer extends JButton implements TableCellRenderer {
-        public ButtonRenderer() {
-            setOpaque(true);
-            setText("Delete");
-            setForeground(Color.RED);
-            setPreferredSize(new Dimension(80, 20));
-            setFont(new Font("Arial", Font.PLAIN, 11));
-            setBorder(BorderFactory.createRaisedBevelBorder());
+    private void updateSortIndicators(JTable table, PagedTableModel model) {
+        TableColumnModel columns = table.getColumnModel();
+        for (int i = 0; i < columns.getColumnCount(); i++) {
+            TableColumn column = columns.getColumn(i);
+            int modelIndex = column.getModelIndex();
+            String title = model.getColumnName(modelIndex);
+            if (modelIndex == model.getSortColumn()) {
+                title += model.isAscending() ? " \u25B2" : " \u25BC";
+            }
+            column.setHeaderValue(title);
         }
+        table.getTableHeader().repaint();
+    }
 
-        @Override
-        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
-            if (isSelected) {
-                setBackground(table.getSelectionBackground());
-                setForeground(table.getSelectionForeground());
+    private PagedTableModel createAdoptionModel(String name, String filter) {
+        return new PagedTableModel(name, name, dataExecutor, this::getConnection, dialect,
+                "SELECT a.adoption_id, a.pet_id, p.pet_name, a.adopter_id, ad.first_name || ' ' || ad.last_name AS adopter_name, a.adoption_date, a.status " +
+                "FROM Adoptions a " +
+                "JOIN Pets p ON a.pet_id = p.pet_id " +
+                "JOIN Adopters ad ON a.adopter_id = ad.adopter_id",
+                filter, "a.adoption_id", ADOPTION_COLUMNS, null, PAGE_SIZE, MAX_CACHED_PAGES);
+    }
+
+    // Applies changed adoption rows to both adoption tables and re-checks the affected pets and adopters with one query each
+    private void applyAdoptionChanges(List<Object[]> rows) {
+        Set<Integer> petIds = new LinkedHashSet<>();
+        Set<Integer> adopterIds = new LinkedHashSet<>();
+        for (Object[] row : rows) {
+            int adoptionId = (Integer) row[0];
+            adoptionModel.upsertRow(row);
+            if ("Completed".equals(row[6])) {
+                statusModel.deleteRow(adoptionId);
             } else {
-                setBackground(table.getBackground());
-                setForeground(Color.RED);
+                statusModel.upsertRow(row.clone());
             }
-            return this;
+            petIds.add((Integer) row[1]);
+            adopterIds.add((Integer) row[3]);
         }
+        petModel.refreshRows(petIds);
+        adopterModel.refreshRows(adopterIds);
     }
 
-    class ButtonEditor extends DefaultCellEditor {
-        private JButton button;
-        private JTable table;
-        private java.util.function.Consumer<Integer> deleteAction;
-
-        public ButtonEditor(JCheckBox checkBox, JTable table, java.util.function.Consumer<Integer> deleteAction) {
-            super(checkBox);
-            this.table = table;
-            this.deleteAction = deleteAction;
-            button = new JButton("Delete");
-            button.setOpaque(true);
-            button.setForeground(Color.RED);
-            button.setPreferredSize(new Dimension(80, 20));
-            button.setFont(new Font("Arial", Font.PLAIN, 11));
-            button.setBorder(BorderFactory.createRaisedBevelBorder());
-            button.addActionListener(e -> fireEditingStopped());
+    // Refreshes just the rows other workstations changed. Tabs not built yet load fresh data when first shown.
+    private void applyRemoteChanges(ChangeFeed.Changes changes) {
+        if (changes.isReloaded(ChangeFeed.PETS)) {
+            rebuildSearchIndex("pets");
         }
-
-        @Override
-        public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected, int row, int column) {
-            button.addActionListener(e -> {
-                int id = (Integer) table.getValueAt(row, 0);
-                int confirm = JOptionPane.showConfirmDialog(table, "Are you sure you want to delete this record?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
-                if (confirm == JOptionPane.YES_OPTION) {
-                    deleteAction.accept(id);
-                }
-            });
-            return button;
+        if (changes.isReloaded(ChangeFeed.ADOPTERS)) {
+            rebuildSearchIndex("adopters");
         }
+        applyRemoteChanges(3, petModel, changes, ChangeFeed.PETS);
+        applyRemoteChanges(4, adopterModel, changes, ChangeFeed.ADOPTERS);
+        applyRemoteChanges(5, adoptionModel, changes, ChangeFeed.ADOPTIONS);
+        applyRemoteChanges(6, statusModel, changes, ChangeFeed.ADOPTIONS);
+        // Hidden reports are read again when next shown
+        if (builtTabs.get(7) && reportsView.isShowing() && (!changes.getRows(ChangeFeed.ADOPTIONS).isEmpty() || !changes.getRows(ChangeFeed.PETS).isEmpty()
+                || changes.isReloaded(ChangeFeed.ADOPTIONS) || changes.isReloaded(ChangeFeed.PETS))) {
+            reportsView.reload();
+        }
+    }
 
-        @Override
-        public Object getCellEditorValue() {
-            return "Delete";
+    private void applyRemoteChanges(int tabIndex, PagedTableModel model, ChangeFeed.Changes changes, String table) {
+        if (!builtTabs.get(tabIndex)) {
+            return;
+        }
+        if (changes.isReloaded(table)) {
+            model.reload();
+            return;
+        }
+        model.refreshRows(changes.getRows(table));
+        if (ChangeFeed.ADOPTIONS.equals(table)) {
+            // Renamed pets and adopters show up in the name columns of their adoptions
+            for (int petId : changes.getRows(ChangeFeed.PETS)) {
+                model.refreshRowsFor(1, petId);
+            }
+            for (int adopterId : changes.getRows(ChangeFeed.ADOPTERS)) {
+                model.refreshRowsFor(3, adopterId);
+            }
         }
     }
 
+    private void clearPetFields() {
+        petName.setText("");
+        petSpecies.setText("");
+        petAge.setText("");
+        petIdToUpdate.setText("");
+    }
+
+    private void clearAdopterFields() {
+        adopterFirstName.setText("");
+        adopterLastName.setText("");
+        adopterPhone.setText("");
+        adopterIdToUpdate.setText("");
+    }
+
+    private void clearAdoptionFields() {
+        adoptionPetId.setText("");
+        adoptionAdopterId.setText("");
+    }
+
     public static void main(String[] args) {
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.log(Level.WARNING, "Could not use the system look and feel", e);
         }
+        Metrics metrics = new Metrics();
+        MetricsLogHandler.install(metrics);
+        DatabaseConfig config = DatabaseConfig.load();
+        // Installed before the first window, so every event the application handles is timed
+        EdtStallDetector stallDetector = new EdtStallDetector(metrics, config.getLong("diagnostics.stallMillis", 100L),
+                Paths.get(config.get("diagnostics.stallLog", "edt-stalls.log")), config.getLong("diagnostics.stallLogMaxKb", 512L) * 1024);
+        stallDetector.install();
         SwingUtilities.invokeLater(() -> {
-            PetAdoptionApp app = new PetAdoptionApp();
+            PetAdoptionApp app = new PetAdoptionApp(config, metrics);
+            stallDetector.addOwner(app);
             app.setVisible(true);
         });
     }
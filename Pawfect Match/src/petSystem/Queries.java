@@ -0,0 +1,162 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * The fixed SQL of the data-access classes, named in one place. Values are always bound, never spliced in,
+ * so each query has exactly one text: the server parses it once and every pooled connection's statement
+ * cache reuses its prepared copy. Templates with {@code %s} take the placeholder list from {@link #inList}.
+ */
+public final class Queries {
+    // Oracle allows at most 1000 expressions in an IN list
+    public static final int MAX_IN_LIST = 500;
+    // IN lists are padded up to one of these lengths, so a handful of texts cover every id count
+    private static final int[] IN_LIST_SIZES = {1, 2, 4, 8, 16, 32, 64, 128, 256, MAX_IN_LIST};
+
+    // Soft-deleted pets and adopters are still found, so adoption rows keep their names until they are archived
+    public static final String FIND_PET = "SELECT pet_id, pet_name, species, age FROM Pets WHERE pet_id = ?";
+    public static final String FIND_ADOPTER = "SELECT adopter_id, first_name, last_name, phone FROM Adopters WHERE adopter_id = ?";
+    public static final String FIND_ADOPTION = "SELECT adoption_id, pet_id, adopter_id, adoption_date, status FROM Adoptions WHERE adoption_id = ?";
+    public static final String FIND_ADOPTIONS = "SELECT adoption_id, pet_id, adopter_id, adoption_date, status FROM Adoptions WHERE adoption_id IN (%s) ORDER BY adoption_id";
+    public static final String COUNT_OTHER_COMPLETED_FOR_PET = "SELECT COUNT(*) FROM Adoptions WHERE pet_id = ? AND status = 'Completed' AND adoption_id <> ?";
+    public static final String COMPLETED_FOR_PETS = "SELECT pet_id, adoption_id FROM Adoptions WHERE status = 'Completed' AND pet_id IN (%s)";
+    public static final String LOCK_LIVE_ADOPTER = "SELECT adopter_id FROM Adopters WHERE adopter_id = ? AND deleted_at IS NULL";
+    public static final String LOCK_LIVE_PET = "SELECT pet_id FROM Pets WHERE pet_id = ? AND deleted_at IS NULL";
+    public static final String LOCK_PETS = "SELECT pet_id FROM Pets WHERE pet_id IN (%s)";
+    public static final String LOCK_LIVE_PETS = "SELECT pet_id FROM Pets WHERE deleted_at IS NULL AND pet_id IN (%s)";
+    public static final String LOCK_ADOPTERS = "SELECT adopter_id FROM Adopters WHERE adopter_id IN (%s)";
+
+    public static final String UPDATE_PET = "UPDATE Pets SET pet_name = ?, species = ?, age = ? WHERE pet_id = ? AND deleted_at IS NULL";
+    public static final String UPDATE_ADOPTER = "UPDATE Adopters SET first_name = ?, last_name = ?, phone = ? WHERE adopter_id = ? AND deleted_at IS NULL";
+    public static final String UPDATE_ADOPTION_STATUS = "UPDATE Adoptions SET status = ? WHERE adoption_id = ?";
+    public static final String UPDATE_ADOPTION_STATUSES = "UPDATE Adoptions SET status = ? WHERE adoption_id IN (%s)";
+    // Run after a status change, with the dialect's current timestamp in place of the first %s
+    public static final String UPDATE_COMPLETED_AT = "UPDATE Adoptions SET completed_at = CASE WHEN status = 'Completed' THEN COALESCE(completed_at, %s) END"
+            + " WHERE adoption_id IN (%%s)";
+
+    // Adoption_Stats rows count adoptions by species, month and status; see V9__adoption_stats.sql
+    public static final String ADOPTION_STATS_SOURCES = "SELECT p.species, a.adoption_date, a.status, a.completed_at FROM Adoptions a"
+            + " JOIN Pets p ON p.pet_id = a.pet_id WHERE a.adoption_id IN (%s)";
+    public static final String ADD_TO_ADOPTION_STATS = "UPDATE Adoption_Stats SET adoptions = adoptions + ?, timed_completions = timed_completions + ?,"
+            + " completion_seconds = completion_seconds + ? WHERE species = ? AND adoption_month = ? AND status = ?";
+    public static final String INSERT_ADOPTION_STATS = "INSERT INTO Adoption_Stats (adoptions, timed_completions, completion_seconds, species, adoption_month, status)"
+            + " VALUES (?, ?, ?, ?, ?, ?)";
+    public static final String ADOPTION_STATS = "SELECT species, adoption_month, status, adoptions, timed_completions, completion_seconds FROM Adoption_Stats"
+            + " WHERE adoptions <> 0";
+
+    public static final String PET_INDEX_ROWS = "SELECT pet_id, pet_name, species FROM Pets WHERE deleted_at IS NULL";
+    public static final String PET_INDEX_ROWS_BY_ID = PET_INDEX_ROWS + " AND pet_id IN (%s)";
+    public static final String ADOPTER_INDEX_ROWS = "SELECT adopter_id, first_name, last_name, phone FROM Adopters WHERE deleted_at IS NULL";
+    public static final String ADOPTER_INDEX_ROWS_BY_ID = ADOPTER_INDEX_ROWS + " AND adopter_id IN (%s)";
+
+    public static final String FIND_USER = "SELECT user_id, password, password_hash, role FROM Users WHERE username = ?";
+    public static final String UPDATE_PASSWORD_HASH = "UPDATE Users SET password_hash = ?, password = NULL WHERE user_id = ?";
+
+    public static final String CHANGES_SINCE = "SELECT version, table_name, row_id, origin FROM Change_Log WHERE version > ? ORDER BY version";
+    public static final String LATEST_CHANGE = "SELECT MAX(version) FROM Change_Log";
+    public static final String PRUNE_CHANGES = "DELETE FROM Change_Log WHERE changed_at < ?";
+
+    // Archive candidates; each takes the cutoff time and the batch size. An adoption's age counts from its completion,
+    // or from its start when it has no completion time; adopters with an adoption still open are never candidates.
+    public static final String ARCHIVABLE_ADOPTERS_WITH_COMPLETED = "SELECT DISTINCT a.adopter_id FROM Adoptions a WHERE a.status = 'Completed'"
+            + " AND COALESCE(a.completed_at, a.adoption_date) < ?"
+            + " AND NOT EXISTS (SELECT 1 FROM Adoptions b WHERE b.adopter_id = a.adopter_id AND COALESCE(b.completed_at, b.adoption_date) >= ?)"
+            + " AND NOT EXISTS (SELECT 1 FROM Adoptions o WHERE o.adopter_id = a.adopter_id AND o.status <> 'Completed' AND o.status <> 'Cancelled')"
+            + " FETCH FIRST ? ROWS ONLY";
+    public static final String ARCHIVABLE_DELETED_ADOPTERS = "SELECT d.adopter_id FROM Adopters d WHERE d.deleted_at < ?"
+            + " AND NOT EXISTS (SELECT 1 FROM Adoptions a WHERE a.adopter_id = d.adopter_id AND a.status = 'Completed') FETCH FIRST ? ROWS ONLY";
+    public static final String ARCHIVABLE_DELETED_PETS = "SELECT p.pet_id FROM Pets p WHERE p.deleted_at < ?"
+            + " AND NOT EXISTS (SELECT 1 FROM Adoptions a WHERE a.pet_id = p.pet_id AND a.status = 'Completed') FETCH FIRST ? ROWS ONLY";
+    public static final String ARCHIVABLE_CANCELLED_ADOPTIONS = "SELECT adoption_id FROM Adoptions WHERE status = 'Cancelled'"
+            + " AND COALESCE(completed_at, adoption_date) < ? FETCH FIRST ? ROWS ONLY";
+    public static final String OPEN_OR_RECENT_ADOPTIONS_OF_ADOPTERS = "SELECT adoption_id FROM Adoptions WHERE (COALESCE(completed_at, adoption_date) >= ?"
+            + " OR status <> 'Completed' AND status <> 'Cancelled') AND adopter_id IN (%s)";
+    public static final String PETS_COMPLETED_BY_ADOPTERS = "SELECT pet_id FROM Adoptions WHERE status = 'Completed' AND adopter_id IN (%s)";
+    public static final String ADOPTIONS_OF_PETS = "SELECT adoption_id FROM Adoptions WHERE pet_id IN (%s)";
+    public static final String ADOPTIONS_OF_ADOPTERS = "SELECT adoption_id FROM Adoptions WHERE adopter_id IN (%s)";
+    // Moves take the archive time first, then the ids
+    public static final String ARCHIVE_ADOPTIONS = "INSERT INTO Adoptions_Archive (adoption_id, adopter_id, pet_id, adoption_date, status, completed_at, archived_at)"
+            + " SELECT adoption_id, adopter_id, pet_id, adoption_date, status, completed_at, ? FROM Adoptions WHERE adoption_id IN (%s)";
+    public static final String ARCHIVE_PETS = "INSERT INTO Pets_Archive (pet_id, pet_name, species, age, deleted_at, archived_at)"
+            + " SELECT pet_id, pet_name, species, age, deleted_at, ? FROM Pets WHERE pet_id IN (%s)";
+    public static final String ARCHIVE_ADOPTERS = "INSERT INTO Adopters_Archive (adopter_id, first_name, last_name, phone, deleted_at, archived_at)"
+            + " SELECT adopter_id, first_name, last_name, phone, deleted_at, ? FROM Adopters WHERE adopter_id IN (%s)";
+    public static final String DELETE_ADOPTIONS = "DELETE FROM Adoptions WHERE adoption_id IN (%s)";
+    public static final String DELETE_PETS = "DELETE FROM Pets WHERE pet_id IN (%s)";
+    public static final String DELETE_ADOPTERS = "DELETE FROM Adopters WHERE adopter_id IN (%s)";
+
+    public interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    private Queries() {
+    }
+
+    // Fills the template's %s with placeholders for count ids (at most MAX_IN_LIST), padded to a standard length
+    public static String inList(String template, int count) {
+        return String.format(template, placeholders(count));
+    }
+
+    public static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(paddedSize(count), "?"));
+    }
+
+    /**
+     * Binds ids[from..to) starting at firstIndex and repeats the last id over the padding added by inList;
+     * duplicates in an IN list do not change its result. Returns the index after the list.
+     */
+    public static int bindInList(PreparedStatement stmt, int firstIndex, int[] ids, int from, int to) throws SQLException {
+        int index = firstIndex;
+        for (int i = from; i < to; i++) {
+            stmt.setInt(index++, ids[i]);
+        }
+        for (int i = to - from; i < paddedSize(to - from); i++) {
+            stmt.setInt(index++, ids[to - 1]);
+        }
+        return index;
+    }
+
+    /**
+     * Runs the statement once per chunk of ids, with the chunk's placeholders in place of %s and an optional
+     * leading parameter. Queries pass each row to the handler; other statements are just executed. Returns
+     * the total update count.
+     */
+    public static int forEachChunk(Connection conn, String template, Object firstParameter, int[] ids, RowHandler handler) throws SQLException {
+        int updated = 0;
+        for (int from = 0; from < ids.length; from += MAX_IN_LIST) {
+            int to = Math.min(ids.length, from + MAX_IN_LIST);
+            try (PreparedStatement stmt = conn.prepareStatement(inList(template, to - from))) {
+                int index = 1;
+                if (firstParameter != null) {
+                    stmt.setObject(index++, firstParameter);
+                }
+                bindInList(stmt, index, ids, from, to);
+                if (stmt.execute()) {
+                    try (ResultSet rs = stmt.getResultSet()) {
+                        while (rs.next()) {
+                            if (handler != null) {
+                                handler.handle(rs);
+                            }
+                        }
+                    }
+                } else {
+                    updated += stmt.getUpdateCount();
+                }
+            }
+        }
+        return updated;
+    }
+
+    private static int paddedSize(int count) {
+        for (int size : IN_LIST_SIZES) {
+            if (count <= size) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("More than " + MAX_IN_LIST + " ids in one IN list: " + count);
+    }
+}
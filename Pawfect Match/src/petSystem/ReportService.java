@@ -0,0 +1,114 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Adoption figures for the Reports tab, read from the Adoption_Stats aggregate table. One query fetches every
+ * species, month and status group, so a report costs the same with a thousand adoptions or ten million.
+ */
+public class ReportService {
+    // The statuses the Update Status tab sets, in chart order; any others in the data follow them
+    public static final List<String> STATUSES = Arrays.asList("Pending", "Completed", "Cancelled");
+
+    /** One reading of the aggregates. Average times count only completions with a recorded completion time. */
+    public static final class Report {
+        private final Map<String, Map<String, Long>> bySpecies = new TreeMap<>();
+        private final TreeMap<YearMonth, Map<String, Long>> byMonth = new TreeMap<>();
+        private final Map<String, long[]> timingBySpecies = new TreeMap<>();
+        private final List<String> statuses = new ArrayList<>(STATUSES);
+
+        private void add(String species, YearMonth month, String status, long adoptions, long timed, long seconds) {
+            bySpecies.computeIfAbsent(species, k -> new TreeMap<>()).merge(status, adoptions, Long::sum);
+            byMonth.computeIfAbsent(month, k -> new TreeMap<>()).merge(status, adoptions, Long::sum);
+            long[] timing = timingBySpecies.computeIfAbsent(species, k -> new long[2]);
+            timing[0] += timed;
+            timing[1] += seconds;
+            if (!statuses.contains(status)) {
+                statuses.add(status);
+            }
+        }
+
+        public List<String> getStatuses() {
+            return Collections.unmodifiableList(statuses);
+        }
+
+        public Set<String> getSpecies() {
+            return Collections.unmodifiableSet(bySpecies.keySet());
+        }
+
+        public long getAdoptions(String species, String status) {
+            return bySpecies.getOrDefault(species, Collections.emptyMap()).getOrDefault(status, 0L);
+        }
+
+        public long getAdoptions(YearMonth month, String status) {
+            return byMonth.getOrDefault(month, Collections.emptyMap()).getOrDefault(status, 0L);
+        }
+
+        // The latest month with adoptions, or null when there are none
+        public YearMonth getLastMonth() {
+            return byMonth.isEmpty() ? null : byMonth.lastKey();
+        }
+
+        public long getTotal(String status) {
+            long total = 0;
+            for (Map<String, Long> counts : bySpecies.values()) {
+                total += counts.getOrDefault(status, 0L);
+            }
+            return total;
+        }
+
+        public long getPendingBacklog() {
+            return getTotal("Pending");
+        }
+
+        // Average days from adoption to completion, or -1 when no completion has been timed
+        public double getAverageDaysToAdoption() {
+            long timed = 0;
+            long seconds = 0;
+            for (long[] timing : timingBySpecies.values()) {
+                timed += timing[0];
+                seconds += timing[1];
+            }
+            return averageDays(timed, seconds);
+        }
+
+        public double getAverageDaysToAdoption(String species) {
+            long[] timing = timingBySpecies.get(species);
+            return timing == null ? -1 : averageDays(timing[0], timing[1]);
+        }
+
+        private static double averageDays(long timed, long seconds) {
+            return timed == 0 ? -1 : seconds / 86400.0 / timed;
+        }
+    }
+
+    private final ConnectionSource connections;
+
+    public ReportService(ConnectionSource connections) {
+        this.connections = connections;
+    }
+
+    public Report load() throws SQLException {
+        Report report = new Report();
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(Queries.ADOPTION_STATS);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                report.add(rs.getString(1), YearMonth.from(rs.getDate(2).toLocalDate()), rs.getString(3),
+                        rs.getLong(4), rs.getLong(5), rs.getLong(6));
+            }
+        }
+        return report;
+    }
+}
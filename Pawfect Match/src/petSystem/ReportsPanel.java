@@ -0,0 +1,237 @@
+package petSystem;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The Reports tab: adoption counts per species and per month, the pending backlog and the average time to
+ * adoption. The figures are read and both charts drawn into an image on a data-access worker, so the Event
+ * Dispatch Thread only copies the finished image. Resizing redraws the image from the last figures without
+ * going back to the database.
+ */
+public class ReportsPanel extends JPanel {
+    private static final Logger LOG = Logger.getLogger(ReportsPanel.class.getName());
+
+    private static final int MONTHS = 12;
+    private static final int RESIZE_DELAY_MILLIS = 150;
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yy");
+    private static final Color[] STATUS_COLORS = {new Color(230, 160, 40), new Color(60, 150, 80), new Color(190, 70, 60),
+            new Color(90, 110, 190), new Color(140, 140, 140)};
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 13);
+    private static final Font LABEL_FONT = new Font("Arial", Font.PLAIN, 11);
+
+    private static final class Loaded {
+        final ReportService.Report report;
+        final BufferedImage charts;
+
+        Loaded(ReportService.Report report, BufferedImage charts) {
+            this.report = report;
+            this.charts = charts;
+        }
+    }
+
+    private final DataAccessExecutor executor;
+    private final ReportService reports;
+    private final JLabel summaryLabel = new JLabel(" ");
+    private final JComponent chartView = new JComponent() {
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (charts != null) {
+                g.drawImage(charts, 0, 0, null);
+            }
+        }
+    };
+    private final Timer resizeTimer = new Timer(RESIZE_DELAY_MILLIS, e -> redraw());
+    private ReportService.Report report;
+    private BufferedImage charts;
+    // Read by the workers, so a load that finishes after a resize draws at the new size
+    private volatile Dimension chartSize = new Dimension(0, 0);
+
+    public ReportsPanel(DataAccessExecutor executor, ReportService reports) {
+        super(new BorderLayout());
+        this.executor = executor;
+        this.reports = reports;
+        setOpaque(false);
+
+        summaryLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        summaryLabel.setBorder(BorderFactory.createEmptyBorder(8, 10, 8, 10));
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> reload());
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.setOpaque(false);
+        topPanel.add(summaryLabel, BorderLayout.CENTER);
+        topPanel.add(refreshButton, BorderLayout.EAST);
+        add(topPanel, BorderLayout.NORTH);
+        add(chartView, BorderLayout.CENTER);
+
+        resizeTimer.setRepeats(false);
+        chartView.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                chartSize = chartView.getSize();
+                resizeTimer.restart();
+            }
+        });
+    }
+
+    // Reads the aggregates again and redraws; a reload still running is superseded
+    public void reload() {
+        executor.submit("reports.load", "reports", "reports.load", () -> {
+            ReportService.Report loaded = reports.load();
+            return new Loaded(loaded, render(loaded, chartSize));
+        }, loaded -> {
+            report = loaded.report;
+            showCharts(loaded.charts);
+            summaryLabel.setText(summarize(loaded.report));
+        }, e -> {
+            LOG.log(Level.WARNING, "Reports could not be loaded", e);
+            summaryLabel.setText("Reports could not be loaded: " + e.getMessage());
+        });
+    }
+
+    private void redraw() {
+        ReportService.Report current = report;
+        if (current == null) {
+            return;
+        }
+        executor.submit("reports.render", "reports", "reports.render", () -> render(current, chartSize), this::showCharts,
+                e -> LOG.log(Level.WARNING, "Reports could not be drawn", e));
+    }
+
+    private void showCharts(BufferedImage image) {
+        charts = image;
+        chartView.repaint();
+        // Resized while the image was drawn
+        Dimension size = chartView.getSize();
+        if (size.width > 0 && size.height > 0 && (image == null || image.getWidth() != size.width || image.getHeight() != size.height)) {
+            resizeTimer.restart();
+        }
+    }
+
+    private static String summarize(ReportService.Report report) {
+        double days = report.getAverageDaysToAdoption();
+        return String.format("Pending backlog: %d     Completed: %d     Average time to adoption: %s",
+                report.getPendingBacklog(), report.getTotal("Completed"), days < 0 ? "n/a" : String.format("%.1f days", days));
+    }
+
+    // Draws both charts, species above months, into an image the size of the chart area
+    static BufferedImage render(ReportService.Report report, Dimension size) {
+        if (size.width <= 0 || size.height <= 0) {
+            return null;
+        }
+        BufferedImage image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(new Color(255, 255, 255, 220));
+            g.fillRect(0, 0, size.width, size.height);
+
+            List<String> statuses = report.getStatuses();
+            List<String> species = new ArrayList<>(report.getSpecies());
+            long[][] speciesCounts = new long[species.size()][statuses.size()];
+            List<String> speciesLabels = new ArrayList<>();
+            for (int i = 0; i < species.size(); i++) {
+                for (int s = 0; s < statuses.size(); s++) {
+                    speciesCounts[i][s] = report.getAdoptions(species.get(i), statuses.get(s));
+                }
+                double days = report.getAverageDaysToAdoption(species.get(i));
+                speciesLabels.add(days < 0 ? species.get(i) : String.format("%s (%.1f d)", species.get(i), days));
+            }
+
+            // The last twelve months up to now, or up to the latest adoption if that is later
+            YearMonth last = YearMonth.now();
+            if (report.getLastMonth() != null && report.getLastMonth().isAfter(last)) {
+                last = report.getLastMonth();
+            }
+            long[][] monthCounts = new long[MONTHS][statuses.size()];
+            List<String> monthLabels = new ArrayList<>();
+            for (int i = 0; i < MONTHS; i++) {
+                YearMonth month = last.minusMonths(MONTHS - 1 - i);
+                for (int s = 0; s < statuses.size(); s++) {
+                    monthCounts[i][s] = report.getAdoptions(month, statuses.get(s));
+                }
+                monthLabels.add(month.format(MONTH_LABEL));
+            }
+
+            int half = size.height / 2;
+            drawBars(g, new Rectangle(0, 0, size.width, half), "Adoptions per species (average days to adoption)", speciesLabels, speciesCounts, statuses);
+            drawBars(g, new Rectangle(0, half, size.width, size.height - half), "Adoptions per month", monthLabels, monthCounts, statuses);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    // Grouped bar chart: one group per label, one bar per status, with a legend under the title
+    private static void drawBars(Graphics2D g, Rectangle area, String title, List<String> labels, long[][] counts, List<String> statuses) {
+        int left = area.x + 50;
+        int right = area.x + area.width - 15;
+        int top = area.y + 44;
+        int bottom = area.y + area.height - 24;
+
+        g.setFont(TITLE_FONT);
+        g.setColor(Color.DARK_GRAY);
+        g.drawString(title, area.x + 15, area.y + 20);
+        g.setFont(LABEL_FONT);
+        FontMetrics metrics = g.getFontMetrics();
+        int legendX = area.x + 15;
+        for (int s = 0; s < statuses.size(); s++) {
+            g.setColor(colorOf(s));
+            g.fillRect(legendX, area.y + 28, 10, 10);
+            g.setColor(Color.DARK_GRAY);
+            g.drawString(statuses.get(s), legendX + 14, area.y + 37);
+            legendX += 24 + metrics.stringWidth(statuses.get(s));
+        }
+        if (right <= left || bottom <= top) {
+            return;
+        }
+        if (labels.isEmpty()) {
+            g.drawString("No adoptions yet", left, (top + bottom) / 2);
+            return;
+        }
+
+        long max = 1;
+        for (long[] group : counts) {
+            for (long count : group) {
+                max = Math.max(max, count);
+            }
+        }
+        g.setColor(Color.GRAY);
+        g.drawLine(left, bottom, right, bottom);
+        g.drawLine(left, top, left, bottom);
+        String maxLabel = String.valueOf(max);
+        g.drawString(maxLabel, left - 6 - metrics.stringWidth(maxLabel), top + metrics.getAscent() / 2);
+        g.drawString("0", left - 6 - metrics.stringWidth("0"), bottom);
+
+        double groupWidth = (right - left) / (double) labels.size();
+        double barWidth = Math.max(1, groupWidth * 0.8 / statuses.size());
+        for (int i = 0; i < labels.size(); i++) {
+            double groupX = left + i * groupWidth + groupWidth * 0.1;
+            for (int s = 0; s < statuses.size(); s++) {
+                int height = (int) Math.round((bottom - top) * (double) counts[i][s] / max);
+                g.setColor(colorOf(s));
+                g.fillRect((int) Math.round(groupX + s * barWidth), bottom - height, (int) Math.ceil(barWidth), height);
+            }
+            String label = labels.get(i);
+            int labelWidth = metrics.stringWidth(label);
+            if (labelWidth <= groupWidth) {
+                g.setColor(Color.DARK_GRAY);
+                g.drawString(label, (int) Math.round(left + i * groupWidth + (groupWidth - labelWidth) / 2), bottom + metrics.getAscent() + 4);
+            }
+        }
+    }
+
+    private static Color colorOf(int status) {
+        return STATUS_COLORS[Math.min(status, STATUS_COLORS.length - 1)];
+    }
+}
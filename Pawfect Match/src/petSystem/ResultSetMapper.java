@@ -0,0 +1,138 @@
+package petSystem;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+/**
+ * Reads the rows of one fixed select into {@link ColumnarPage}s. The column types are looked up once,
+ * from the first result set, and turned into one reader per column, so the per-cell work is a single
+ * typed getter with no metadata calls, string comparisons or boxing of integer columns. It also picks
+ * the fetch size where the driver has one: enough rows for the whole read in one round-trip, limited by
+ * how much buffer rows this wide need (the Oracle driver allocates fetch size times the maximum row width).
+ * Safe to share between worker threads.
+ */
+final class ResultSetMapper {
+    private static final int FETCH_BUFFER_BYTES = 2 * 1024 * 1024;
+    private static final int MIN_FETCH_SIZE = 10;
+    private static final int MAX_FETCH_SIZE = 5000;
+    // Assumed until the first result set tells the real width
+    private static final int DEFAULT_ROW_BYTES = 512;
+    private static final int MAX_COLUMN_BYTES = 4000;
+    // Largest initial page allocation; bigger reads grow as rows arrive
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private interface ColumnReader {
+        void read(ResultSet rs, int index, ColumnarPage page, int row, int column) throws SQLException;
+    }
+
+    private static final ColumnReader INT = (rs, index, page, row, column) -> {
+        int value = rs.getInt(index);
+        if (value == 0 && rs.wasNull()) {
+            page.setNull(row, column);
+        } else {
+            page.setInt(row, column, value);
+        }
+    };
+    private static final ColumnReader STRING = (rs, index, page, row, column) -> page.setObject(row, column, rs.getString(index));
+    private static final ColumnReader DATE = (rs, index, page, row, column) -> page.setObject(row, column, rs.getDate(index));
+    private static final ColumnReader TIMESTAMP = (rs, index, page, row, column) -> page.setObject(row, column, rs.getTimestamp(index));
+    private static final ColumnReader OBJECT = (rs, index, page, row, column) -> page.setObject(row, column, rs.getObject(index));
+
+    private static final class Layout {
+        final ColumnReader[] readers;
+        final boolean[] intColumns;
+        final int rowBytes;
+
+        Layout(ColumnReader[] readers, boolean[] intColumns, int rowBytes) {
+            this.readers = readers;
+            this.intColumns = intColumns;
+            this.rowBytes = rowBytes;
+        }
+    }
+
+    private final int columnCount;
+    private final boolean fetchesInRoundTrips;
+    private volatile Layout layout;
+
+    // Maps the first columnCount columns of each row
+    ResultSetMapper(int columnCount, SqlDialect dialect) {
+        this.columnCount = columnCount;
+        this.fetchesInRoundTrips = dialect.fetchesInRoundTrips();
+    }
+
+    // Sizes the statement's fetches for a read of up to expectedRows rows
+    void applyFetchSize(Statement stmt, int expectedRows) throws SQLException {
+        if (fetchesInRoundTrips) {
+            stmt.setFetchSize(fetchSize(expectedRows));
+        }
+    }
+
+    private int fetchSize(int expectedRows) {
+        Layout known = layout;
+        int rowBytes = known == null ? DEFAULT_ROW_BYTES : known.rowBytes;
+        int bufferRows = Math.max(MIN_FETCH_SIZE, FETCH_BUFFER_BYTES / rowBytes);
+        // One more than expected, so the driver sees the end of the rows in the same round-trip
+        return Math.max(1, Math.min(Math.min(expectedRows + 1, bufferRows), MAX_FETCH_SIZE));
+    }
+
+    ColumnarPage read(ResultSet rs, int expectedRows) throws SQLException {
+        Layout known = layout;
+        if (known == null) {
+            known = layout = describe(rs.getMetaData());
+        }
+        ColumnReader[] readers = known.readers;
+        ColumnarPage page = new ColumnarPage(known.intColumns, Math.min(expectedRows, MAX_INITIAL_CAPACITY));
+        while (rs.next()) {
+            int row = page.addRow();
+            for (int column = 0; column < readers.length; column++) {
+                readers[column].read(rs, column + 1, page, row, column);
+            }
+        }
+        DataAccessExecutor.countRows(page.size());
+        return page;
+    }
+
+    private Layout describe(ResultSetMetaData metaData) throws SQLException {
+        ColumnReader[] readers = new ColumnReader[columnCount];
+        boolean[] intColumns = new boolean[columnCount];
+        int rowBytes = 0;
+        for (int i = 1; i <= columnCount; i++) {
+            ColumnReader reader = readerFor(metaData.getColumnType(i), metaData.getPrecision(i), metaData.getScale(i));
+            readers[i - 1] = reader;
+            intColumns[i - 1] = reader == INT;
+            // Oracle reports NUMBER without precision as 0; character columns buffer two bytes per char
+            int width = reader == INT ? 22 : Math.max(metaData.getColumnDisplaySize(i), 0) * 2;
+            rowBytes += Math.min(Math.max(width, 8), MAX_COLUMN_BYTES);
+        }
+        return new Layout(readers, intColumns, Math.max(rowBytes, 1));
+    }
+
+    private static ColumnReader readerFor(int type, int precision, int scale) {
+        switch (type) {
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return INT;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                // Whole numbers that fit an int; Oracle's unconstrained NUMBER (precision 0) holds the ids
+                return scale <= 0 && precision <= 9 ? INT : OBJECT;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return STRING;
+            case Types.DATE:
+                return DATE;
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+            default:
+                return OBJECT;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package petSystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Brings the schema up to date by running the dialect's numbered scripts under /db/migration in order and recording
+ * each one in schema_version. When the schema is already current this costs a single query.
+ */
+public class SchemaMigrator {
+    private static final Logger LOG = Logger.getLogger(SchemaMigrator.class.getName());
+
+    private static final String[] SCRIPTS = {
+            "V1__baseline.sql",
+            "V2__adoption_indexes.sql",
+            "V3__sequence_cache.sql",
+            "V4__search_indexes.sql",
+            "V5__completed_adoption_unique.sql",
+            "V6__change_log.sql",
+            "V7__password_hashes.sql",
+            "V8__soft_delete_archive.sql",
+            "V9__adoption_stats.sql"
+    };
+    private final ConnectionSource connections;
+    private final SqlDialect dialect;
+
+    public SchemaMigrator(ConnectionSource connections, SqlDialect dialect) {
+        this.connections = connections;
+        this.dialect = dialect;
+    }
+
+    public static int latestVersion() {
+        return versionOf(SCRIPTS[SCRIPTS.length - 1]);
+    }
+
+    // Returns the number of migrations applied
+    public int migrate() throws SQLException, IOException {
+        try (Connection conn = connections.getConnection()) {
+            int current = currentVersion(conn);
+            if (current >= latestVersion()) {
+                return 0;
+            }
+            int applied = 0;
+            for (String script : SCRIPTS) {
+                int version = versionOf(script);
+                if (version <= current) {
+                    continue;
+                }
+                apply(conn, version, script);
+                applied++;
+            }
+            return applied;
+        }
+    }
+
+    private int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            // First start against this database: no version table yet
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE schema_version (version INTEGER PRIMARY KEY, description VARCHAR(200) NOT NULL, applied_on TIMESTAMP NOT NULL)");
+            }
+            return 0;
+        }
+    }
+
+    private void apply(Connection conn, int version, String script) throws SQLException, IOException {
+        LOG.info("Applying schema migration " + script);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : readStatements(script)) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    if (version != 1 || !dialect.isAlreadyExists(e)) {
+                        throw new SQLException("Migration " + script + " failed on: " + sql, e);
+                    }
+                }
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO schema_version (version, description, applied_on) VALUES (?, ?, " + dialect.currentTimestamp() + ")")) {
+            stmt.setInt(1, version);
+            stmt.setString(2, script);
+            stmt.executeUpdate();
+        }
+    }
+
+    private List<String> readStatements(String script) throws IOException {
+        InputStream in = SchemaMigrator.class.getResourceAsStream(dialect.getMigrationDirectory() + script);
+        if (in == null) {
+            throw new IOException("Missing migration script " + dialect.getMigrationDirectory() + script);
+        }
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                current.append(trimmed);
+                if (trimmed.endsWith(";")) {
+                    current.setLength(current.length() - 1);
+                    statements.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(' ');
+                }
+            }
+        }
+        if (current.length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static int versionOf(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+}
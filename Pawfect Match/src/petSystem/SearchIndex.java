@@ -0,0 +1,454 @@
+package petSystem;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index over a few text fields per row, so search-as-you-type is answered without a database
+ * round trip. Field values are split into upper-cased terms (digits only for phone-like fields). Each
+ * distinct term is stored once, indexed by the trigrams of "^^" + term, and keeps a posting list of the
+ * rows that contain it; all posting lists are sorted int arrays. A query term matches the stored terms it
+ * is a prefix of, in digit fields also those it is a substring of, and in word fields, when no term starts
+ * with it, those it is a prefix of within one edit (five characters or more). Matching runs over distinct
+ * terms, not rows, so its cost depends on the vocabulary rather than on the number of pets or adopters.
+ */
+public class SearchIndex {
+    public enum TermKind { WORDS, DIGITS }
+
+    private static final char PAD = '^';
+    private static final int[] NO_TERMS = new int[0];
+
+    private final TermKind[] fieldKinds;
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final Map<Long, Postings> termsByGram = new HashMap<>();
+    private String[] termText = new String[64];
+    private Postings[] termRows = new Postings[64];
+    private int termCount;
+
+    private final Map<Integer, Integer> slotsById = new HashMap<>();
+    private final Postings freeSlots = new Postings();
+    private int[] idsBySlot = new int[64];
+    private int[][] termsBySlot = new int[64][];
+    private int slotCount;
+
+    // Scratch space for search, cleared again before each search returns
+    private int[] gramHits = new int[64];
+    private int[] termCosts = new int[64];
+    private int[] rowScores = new int[64];
+    private final Postings touchedTerms = new Postings();
+    private final Postings touchedRows = new Postings();
+
+    private boolean ready;
+    private Set<Integer> seenDuringLoad;
+
+    public SearchIndex(TermKind... fieldKinds) {
+        this.fieldKinds = fieldKinds.clone();
+    }
+
+    // Adds or replaces a row; values are given in field order
+    public synchronized void put(int id, String... values) {
+        if (seenDuringLoad != null) {
+            seenDuringLoad.add(id);
+        }
+        store(id, values);
+    }
+
+    public synchronized void remove(int id) {
+        if (seenDuringLoad != null) {
+            seenDuringLoad.add(id);
+        }
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        unlink(slot);
+        termsBySlot[slot] = null;
+        freeSlots.append(slot);
+    }
+
+    /**
+     * Starts a rebuild from the database. Rows put or removed by the app while the rebuild reads the
+     * tables keep their newer state, and rows the rebuild did not see are dropped when it finishes.
+     */
+    public synchronized void beginLoad() {
+        seenDuringLoad = new HashSet<>();
+    }
+
+    public synchronized void load(int id, String... values) {
+        if (seenDuringLoad.add(id)) {
+            store(id, values);
+        }
+    }
+
+    public synchronized void finishLoad() {
+        for (Integer id : slotsById.keySet().toArray(new Integer[0])) {
+            if (seenDuringLoad.add(id)) {
+                remove(id);
+            }
+        }
+        seenDuringLoad = null;
+        ready = true;
+    }
+
+    public synchronized void abortLoad() {
+        seenDuringLoad = null;
+    }
+
+    // False until the first load has finished; until then callers should search the database instead
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    public synchronized int size() {
+        return slotsById.size();
+    }
+
+    /**
+     * Ids of the rows matching every term of the query in any of the given fields, best matches first
+     * (prefix, then substring, then by edit distance, then by id). Returns an empty array for a blank
+     * query and null when more than maxResults rows match, which is too broad to be worth an id list.
+     */
+    public synchronized int[] search(String query, int maxResults, int... fields) {
+        String[] queryTerms = terms(query, fieldKinds[fields[0]]);
+        if (queryTerms.length == 0) {
+            return new int[0];
+        }
+        try {
+            // Match every query term against the dictionary, then start from the one with the fewest rows
+            int[][] matched = new int[queryTerms.length][];
+            int[][] costs = new int[queryTerms.length][];
+            int first = 0;
+            long fewestRows = Long.MAX_VALUE;
+            for (int q = 0; q < queryTerms.length; q++) {
+                matched[q] = matchTerms(queryTerms[q], fields, false);
+                if (matched[q].length == 0) {
+                    // Nothing starts with it, so assume a typo
+                    matched[q] = matchTerms(queryTerms[q], fields, true);
+                }
+                costs[q] = new int[matched[q].length];
+                long rows = 0;
+                for (int i = 0; i < matched[q].length; i++) {
+                    costs[q][i] = termCosts[matched[q][i]];
+                    rows += termRows[matched[q][i]].size;
+                }
+                clearTermCosts();
+                if (rows < fewestRows) {
+                    fewestRows = rows;
+                    first = q;
+                }
+            }
+            for (int i = 0; i < matched[first].length; i++) {
+                Postings rows = termRows[matched[first][i]];
+                int cost = costs[first][i];
+                for (int j = 0; j < rows.size; j++) {
+                    int slot = rows.values[j];
+                    if (rowScores[slot] == 0) {
+                        if (queryTerms.length == 1 && touchedRows.size == maxResults) {
+                            return null;
+                        }
+                        touchedRows.append(slot);
+                        rowScores[slot] = cost;
+                    } else {
+                        rowScores[slot] = Math.min(rowScores[slot], cost);
+                    }
+                }
+            }
+            for (int q = 0; q < queryTerms.length && touchedRows.size > 0; q++) {
+                if (q == first) {
+                    continue;
+                }
+                for (int i = 0; i < matched[q].length; i++) {
+                    termCosts[matched[q][i]] = costs[q][i];
+                    touchedTerms.append(matched[q][i]);
+                }
+                int kept = 0;
+                for (int i = 0; i < touchedRows.size; i++) {
+                    int slot = touchedRows.values[i];
+                    int best = 0;
+                    for (int termId : termsBySlot[slot]) {
+                        int cost = termCosts[termId];
+                        if (cost != 0 && (best == 0 || cost < best)) {
+                            best = cost;
+                        }
+                    }
+                    if (best == 0) {
+                        rowScores[slot] = 0;
+                    } else {
+                        // Costs are stored plus one so that zero means no match; keep that offset only once
+                        rowScores[slot] += best - 1;
+                        touchedRows.values[kept++] = slot;
+                    }
+                }
+                touchedRows.size = kept;
+                clearTermCosts();
+            }
+            if (touchedRows.size > maxResults) {
+                return null;
+            }
+            long[] ranked = new long[touchedRows.size];
+            for (int i = 0; i < touchedRows.size; i++) {
+                int slot = touchedRows.values[i];
+                ranked[i] = ((long) rowScores[slot] << 32) | (idsBySlot[slot] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(ranked);
+            int[] ids = new int[ranked.length];
+            for (int i = 0; i < ranked.length; i++) {
+                ids[i] = (int) ranked[i];
+            }
+            return ids;
+        } finally {
+            clearTermCosts();
+            for (int i = 0; i < touchedRows.size; i++) {
+                rowScores[touchedRows.values[i]] = 0;
+            }
+            touchedRows.size = 0;
+        }
+    }
+
+    private void store(int id, String[] values) {
+        Integer existing = slotsById.get(id);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            unlink(slot);
+        } else {
+            slot = freeSlots.size > 0 ? freeSlots.values[--freeSlots.size] : slotCount++;
+            if (slot == idsBySlot.length) {
+                idsBySlot = Arrays.copyOf(idsBySlot, slot * 2);
+                termsBySlot = Arrays.copyOf(termsBySlot, slot * 2);
+                rowScores = Arrays.copyOf(rowScores, slot * 2);
+            }
+            idsBySlot[slot] = id;
+            slotsById.put(id, slot);
+        }
+        int[] ids = NO_TERMS;
+        for (int field = 0; field < fieldKinds.length; field++) {
+            for (String term : terms(field < values.length ? values[field] : null, fieldKinds[field])) {
+                int termId = termId(field, term);
+                if (termRows[termId].add(slot)) {
+                    ids = Arrays.copyOf(ids, ids.length + 1);
+                    ids[ids.length - 1] = termId;
+                }
+            }
+        }
+        termsBySlot[slot] = ids;
+    }
+
+    // Terms whose last row goes away stay in the dictionary; they are few and match no rows
+    private void unlink(int slot) {
+        for (int termId : termsBySlot[slot]) {
+            termRows[termId].remove(slot);
+        }
+    }
+
+    private int termId(int field, String term) {
+        String key = field + ":" + term;
+        Integer existing = termIds.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int termId = termCount++;
+        if (termId == termText.length) {
+            termText = Arrays.copyOf(termText, termId * 2);
+            termRows = Arrays.copyOf(termRows, termId * 2);
+            gramHits = Arrays.copyOf(gramHits, termId * 2);
+            termCosts = Arrays.copyOf(termCosts, termId * 2);
+        }
+        termText[termId] = term;
+        termRows[termId] = new Postings();
+        termIds.put(key, termId);
+        String padded = "" + PAD + PAD + term;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            termsByGram.computeIfAbsent(gram(field, padded, i), k -> new Postings()).add(termId);
+        }
+        return termId;
+    }
+
+    /**
+     * Terms of the given fields that match the query term, with their cost plus one left in termCosts.
+     * A term needs at least a threshold of the query's trigrams: all of them for a prefix, all but the two
+     * padded ones for a substring, and all but four for one edit (a swap of neighbours changes four). It must
+     * then appear in one of the grams - threshold + 1 shortest posting lists, so only those are scanned and
+     * the longer ones are binary searched. Returns no terms when a fuzzy match is asked for but not allowed.
+     */
+    private int[] matchTerms(String queryTerm, int[] fields, boolean fuzzy) {
+        String padded = "" + PAD + PAD + queryTerm;
+        int grams = queryTerm.length();
+        // Phone numbers are searched by any run of digits but never fuzzily, since a typo there is as
+        // likely to hit another real number; names are searched by prefix, forgiving one typo
+        boolean digits = fieldKinds[fields[0]] == TermKind.DIGITS;
+        boolean substrings = digits && grams >= 3;
+        int maxEdits = fuzzy ? 1 : 0;
+        if (fuzzy && (digits || grams < 5)) {
+            return NO_TERMS;
+        }
+        int threshold = substrings ? grams - 2 : Math.max(1, grams - 4 * maxEdits);
+        Postings[] lists = new Postings[grams];
+        for (int field : fields) {
+            int present = 0;
+            for (int i = 0; i < grams; i++) {
+                Postings list = termsByGram.get(gram(field, padded, i));
+                if (list != null) {
+                    lists[present++] = list;
+                }
+            }
+            if (present < threshold) {
+                continue;
+            }
+            Arrays.sort(lists, 0, present, Comparator.comparingInt(list -> list.size));
+            int scanned = present - threshold + 1;
+            int firstCandidate = touchedTerms.size;
+            for (int i = 0; i < scanned; i++) {
+                Postings list = lists[i];
+                for (int j = 0; j < list.size; j++) {
+                    int termId = list.values[j];
+                    if (gramHits[termId]++ == 0) {
+                        touchedTerms.append(termId);
+                    }
+                }
+            }
+            int kept = firstCandidate;
+            for (int i = firstCandidate; i < touchedTerms.size; i++) {
+                int termId = touchedTerms.values[i];
+                int hits = gramHits[termId];
+                gramHits[termId] = 0;
+                for (int j = scanned; j < present && hits < threshold && hits + present - j >= threshold; j++) {
+                    if (lists[j].contains(termId)) {
+                        hits++;
+                    }
+                }
+                int cost = hits >= threshold && termRows[termId].size > 0 ? matchCost(queryTerm, termText[termId], substrings, maxEdits) : -1;
+                if (cost >= 0) {
+                    termCosts[termId] = cost + 1;
+                    touchedTerms.values[kept++] = termId;
+                }
+            }
+            touchedTerms.size = kept;
+        }
+        return Arrays.copyOf(touchedTerms.values, touchedTerms.size);
+    }
+
+    private void clearTermCosts() {
+        for (int i = 0; i < touchedTerms.size; i++) {
+            termCosts[touchedTerms.values[i]] = 0;
+        }
+        touchedTerms.size = 0;
+    }
+
+    // 0 for a prefix match, 1 for a substring match, 1 + edits for a fuzzy prefix match, -1 for no match
+    private static int matchCost(String queryTerm, String term, boolean substrings, int maxEdits) {
+        if (term.startsWith(queryTerm)) {
+            return 0;
+        }
+        if (substrings && term.contains(queryTerm)) {
+            return 1;
+        }
+        if (maxEdits > 0) {
+            int edits = prefixDistance(queryTerm, term, maxEdits);
+            if (edits <= maxEdits) {
+                return 1 + edits;
+            }
+        }
+        return -1;
+    }
+
+    // Smallest edit distance (with adjacent transpositions) between the query and any prefix of the term
+    private static int prefixDistance(String query, String term, int maxEdits) {
+        int m = query.length();
+        int n = Math.min(term.length(), m + maxEdits);
+        int[] previous2 = new int[n + 1];
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= n; j++) {
+                int cost = query.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && query.charAt(i - 1) == term.charAt(j - 2) && query.charAt(i - 2) == term.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return rowMin;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int j = 0; j <= n; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    private static String[] terms(String value, TermKind kind) {
+        if (value == null) {
+            return new String[0];
+        }
+        if (kind == TermKind.DIGITS) {
+            String digits = value.replaceAll("[^0-9]", "");
+            return digits.isEmpty() ? new String[0] : new String[]{digits};
+        }
+        String normalized = value.toUpperCase().replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private static long gram(int field, String padded, int index) {
+        return ((long) field << 48) | ((long) padded.charAt(index) << 32) | ((long) padded.charAt(index + 1) << 16) | padded.charAt(index + 2);
+    }
+
+    // Sorted, growable int array; inserts are nearly always appends because term ids and slots are handed out in order
+    private static class Postings {
+        private int[] values = new int[4];
+        private int size;
+
+        boolean add(int value) {
+            int index = size == 0 || values[size - 1] < value ? -size - 1 : Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return false;
+            }
+            int insertAt = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = value;
+            size++;
+            return true;
+        }
+
+        // For the unsorted scratch lists only
+        void append(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        boolean remove(int value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// One NEXTVAL round-trip per id
+public class SequenceIdAllocator implements IdAllocator {
+    private final SqlDialect dialect;
+
+    public SequenceIdAllocator(SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    @Override
+    public int nextId(Connection conn, String sequence) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(dialect.nextValuesQuery(sequence))) {
+            stmt.setInt(1, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package petSystem;
+
+// The logged-in user, kept in memory for the life of the login
+public final class Session {
+    private final int userId;
+    private final String username;
+    private final String role;
+
+    public Session(int userId, String username, String role) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+}
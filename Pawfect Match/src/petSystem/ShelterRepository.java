@@ -0,0 +1,354 @@
+package petSystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typed access to pets, adopters and adoptions with a write-through entity cache in front of the database.
+ * Every mutation goes to the database first and then updates the cache, so lookups done by validation and
+ * the adoption tables' name columns are answered from memory until the entry expires. Each mutation also
+ * records its row in the change feed within the same transaction, and changes made by other workstations
+ * are applied through {@link #applyRemoteChanges}.
+ */
+public class ShelterRepository {
+    // Fields of the search indexes, in the order their values are passed to SearchIndex.put
+    public static final int PET_NAME_FIELD = 0;
+    public static final int PET_SPECIES_FIELD = 1;
+    public static final int ADOPTER_FIRST_NAME_FIELD = 0;
+    public static final int ADOPTER_LAST_NAME_FIELD = 1;
+    public static final int ADOPTER_PHONE_FIELD = 2;
+
+    private interface Write<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    private final ConnectionSource connections;
+    private final SqlDialect dialect;
+    private final ChangeFeed changeFeed;
+    private final AdoptionStats stats;
+    private final EntityCache<Pet> pets;
+    private final EntityCache<Adopter> adopters;
+    private final SearchIndex petIndex = new SearchIndex(SearchIndex.TermKind.WORDS, SearchIndex.TermKind.WORDS);
+    private final SearchIndex adopterIndex = new SearchIndex(SearchIndex.TermKind.WORDS, SearchIndex.TermKind.WORDS, SearchIndex.TermKind.DIGITS);
+
+    public ShelterRepository(ConnectionSource connections, SqlDialect dialect, ChangeFeed changeFeed, int maxEntries, long ttlMillis) {
+        this.connections = connections;
+        this.dialect = dialect;
+        this.changeFeed = changeFeed;
+        this.stats = new AdoptionStats(dialect);
+        this.pets = new EntityCache<>("pets", maxEntries, ttlMillis);
+        this.adopters = new EntityCache<>("adopters", maxEntries, ttlMillis);
+    }
+
+    public Pet findPet(int petId) throws SQLException {
+        Pet pet = pets.get(petId);
+        if (pet == null) {
+            long readStamp = pets.readStamp();
+            try (Connection conn = connections.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(Queries.FIND_PET)) {
+                stmt.setInt(1, petId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        pet = new Pet(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4));
+                        pets.putLoaded(petId, pet, readStamp);
+                    }
+                }
+            }
+        }
+        return pet;
+    }
+
+    public Adopter findAdopter(int adopterId) throws SQLException {
+        Adopter adopter = adopters.get(adopterId);
+        if (adopter == null) {
+            long readStamp = adopters.readStamp();
+            try (Connection conn = connections.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(Queries.FIND_ADOPTER)) {
+                stmt.setInt(1, adopterId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        adopter = new Adopter(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4));
+                        adopters.putLoaded(adopterId, adopter, readStamp);
+                    }
+                }
+            }
+        }
+        return adopter;
+    }
+
+    public Pet addPet(String name, String species, int age) throws SQLException {
+        String query = "INSERT INTO Pets (pet_id, pet_name, species, age) VALUES (" + dialect.nextValue("pet_seq") + ", ?, ?, ?)";
+        Pet pet = write(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(query, new String[]{"PET_ID"})) {
+                stmt.setString(1, name);
+                stmt.setString(2, species);
+                stmt.setInt(3, age);
+                stmt.executeUpdate();
+                Pet added = new Pet(generatedKey(stmt), name, species, age);
+                changeFeed.record(conn, ChangeFeed.PETS, added.getId());
+                return added;
+            }
+        });
+        pets.put(pet.getId(), pet);
+        petIndex.put(pet.getId(), name, species);
+        return pet;
+    }
+
+    // Returns the updated pet, or null when no pet has that id or it was deleted
+    public Pet updatePet(int petId, String name, String species, int age) throws SQLException {
+        boolean updated = write(conn -> {
+            // Locked first, as adopt() does, so no adoption of the pet appears between the two stats reads
+            try (PreparedStatement lock = conn.prepareStatement(Queries.LOCK_LIVE_PET + dialect.forUpdate())) {
+                lock.setInt(1, petId);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                }
+            }
+            // A new species moves the pet's adoptions to other Adoption_Stats rows
+            List<Integer> adoptionIds = new ArrayList<>();
+            Queries.forEachChunk(conn, Queries.ADOPTIONS_OF_PETS, null, new int[]{petId}, rs -> adoptionIds.add(rs.getInt(1)));
+            int[] ids = adoptionIds.stream().mapToInt(Integer::intValue).toArray();
+            Map<AdoptionStats.Key, long[]> before = stats.read(conn, ids);
+            try (PreparedStatement stmt = conn.prepareStatement(Queries.UPDATE_PET)) {
+                stmt.setString(1, name);
+                stmt.setString(2, species);
+                stmt.setInt(3, age);
+                stmt.setInt(4, petId);
+                if (stmt.executeUpdate() == 0) {
+                    return false;
+                }
+            }
+            stats.update(conn, before, stats.read(conn, ids));
+            changeFeed.record(conn, ChangeFeed.PETS, petId);
+            return true;
+        });
+        if (!updated) {
+            pets.invalidate(petId);
+            petIndex.remove(petId);
+            return null;
+        }
+        Pet pet = new Pet(petId, name, species, age);
+        pets.put(petId, pet);
+        petIndex.put(petId, name, species);
+        return pet;
+    }
+
+    /**
+     * Marks the pet deleted. The row stays, so adoptions that reference it keep working, until the
+     * {@link Archiver} moves it to Pets_Archive.
+     */
+    public boolean deletePet(int petId) throws SQLException {
+        String query = "UPDATE Pets SET deleted_at = " + dialect.currentTimestamp() + " WHERE pet_id = ? AND deleted_at IS NULL";
+        boolean deleted = write(conn -> deleteRow(conn, query, ChangeFeed.PETS, petId));
+        pets.invalidate(petId);
+        petIndex.remove(petId);
+        return deleted;
+    }
+
+    public Adopter addAdopter(String firstName, String lastName, String phone) throws SQLException {
+        String query = "INSERT INTO Adopters (adopter_id, first_name, last_name, phone) VALUES (" + dialect.nextValue("adopter_seq") + ", ?, ?, ?)";
+        Adopter adopter = write(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(query, new String[]{"ADOPTER_ID"})) {
+                stmt.setString(1, firstName);
+                stmt.setString(2, lastName);
+                stmt.setString(3, phone);
+                stmt.executeUpdate();
+                Adopter added = new Adopter(generatedKey(stmt), firstName, lastName, phone);
+                changeFeed.record(conn, ChangeFeed.ADOPTERS, added.getId());
+                return added;
+            }
+        });
+        adopters.put(adopter.getId(), adopter);
+        adopterIndex.put(adopter.getId(), firstName, lastName, phone);
+        return adopter;
+    }
+
+    // Returns the updated adopter, or null when no adopter has that id or it was deleted
+    public Adopter updateAdopter(int adopterId, String firstName, String lastName, String phone) throws SQLException {
+        boolean updated = write(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(Queries.UPDATE_ADOPTER)) {
+                stmt.setString(1, firstName);
+                stmt.setString(2, lastName);
+                stmt.setString(3, phone);
+                stmt.setInt(4, adopterId);
+                if (stmt.executeUpdate() == 0) {
+                    return false;
+                }
+                changeFeed.record(conn, ChangeFeed.ADOPTERS, adopterId);
+                return true;
+            }
+        });
+        if (!updated) {
+            adopters.invalidate(adopterId);
+            adopterIndex.remove(adopterId);
+            return null;
+        }
+        Adopter adopter = new Adopter(adopterId, firstName, lastName, phone);
+        adopters.put(adopterId, adopter);
+        adopterIndex.put(adopterId, firstName, lastName, phone);
+        return adopter;
+    }
+
+    // Marks the adopter deleted, like deletePet
+    public boolean deleteAdopter(int adopterId) throws SQLException {
+        String query = "UPDATE Adopters SET deleted_at = " + dialect.currentTimestamp() + " WHERE adopter_id = ? AND deleted_at IS NULL";
+        boolean deleted = write(conn -> deleteRow(conn, query, ChangeFeed.ADOPTERS, adopterId));
+        adopters.invalidate(adopterId);
+        adopterIndex.remove(adopterId);
+        return deleted;
+    }
+
+    ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    /**
+     * Drops cache entries for rows other workstations changed and re-reads their search index entries.
+     * Runs on the change feed's thread before the tables are refreshed.
+     */
+    public void applyRemoteChanges(ChangeFeed.Changes changes) throws SQLException {
+        for (int petId : changes.getRows(ChangeFeed.PETS)) {
+            pets.invalidate(petId);
+        }
+        for (int adopterId : changes.getRows(ChangeFeed.ADOPTERS)) {
+            adopters.invalidate(adopterId);
+        }
+        reindex(petIndex, Queries.PET_INDEX_ROWS_BY_ID, changes.getRows(ChangeFeed.PETS));
+        reindex(adopterIndex, Queries.ADOPTER_INDEX_ROWS_BY_ID, changes.getRows(ChangeFeed.ADOPTERS));
+    }
+
+    // Adoption row with the pet and adopter name columns filled from the cache
+    public Object[] toAdoptionRow(Adoption adoption) throws SQLException {
+        Pet pet = findPet(adoption.getPetId());
+        Adopter adopter = findAdopter(adoption.getAdopterId());
+        if (pet == null || adopter == null) {
+            return null;
+        }
+        return adoption.toRow(pet, adopter);
+    }
+
+    public SearchIndex getPetIndex() {
+        return petIndex;
+    }
+
+    public SearchIndex getAdopterIndex() {
+        return adopterIndex;
+    }
+
+    // Reads every pet into the search index; meant for a background thread at startup and after an import
+    public void rebuildPetIndex() throws SQLException {
+        rebuildIndex(petIndex, Queries.PET_INDEX_ROWS);
+    }
+
+    public void rebuildAdopterIndex() throws SQLException {
+        rebuildIndex(adopterIndex, Queries.ADOPTER_INDEX_ROWS);
+    }
+
+    private void reindex(SearchIndex index, String query, Set<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        int[] remaining = ids.stream().mapToInt(Integer::intValue).toArray();
+        Set<Integer> found = new HashSet<>();
+        try (Connection conn = connections.getConnection()) {
+            for (int from = 0; from < remaining.length; from += Queries.MAX_IN_LIST) {
+                int to = Math.min(remaining.length, from + Queries.MAX_IN_LIST);
+                try (PreparedStatement stmt = conn.prepareStatement(Queries.inList(query, to - from))) {
+                    Queries.bindInList(stmt, 1, remaining, from, to);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        int columns = rs.getMetaData().getColumnCount();
+                        while (rs.next()) {
+                            String[] values = new String[columns - 1];
+                            for (int i = 1; i < columns; i++) {
+                                values[i - 1] = rs.getString(i + 1);
+                            }
+                            index.put(rs.getInt(1), values);
+                            found.add(rs.getInt(1));
+                        }
+                    }
+                }
+            }
+        }
+        for (int id : remaining) {
+            if (!found.contains(id)) {
+                index.remove(id);
+            }
+        }
+    }
+
+    private void rebuildIndex(SearchIndex index, String query) throws SQLException {
+        index.beginLoad();
+        boolean loaded = false;
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setFetchSize(1000);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                String[] values = new String[columns - 1];
+                while (rs.next()) {
+                    for (int i = 1; i < columns; i++) {
+                        values[i - 1] = rs.getString(i + 1);
+                    }
+                    index.load(rs.getInt(1), values);
+                }
+            }
+            loaded = true;
+        } finally {
+            if (loaded) {
+                index.finishLoad();
+            } else {
+                index.abortLoad();
+            }
+        }
+    }
+
+    // Publishes the entity caches' figures, shown on the Diagnostics tab
+    public void registerMetrics(Metrics metrics) {
+        pets.registerMetrics(metrics);
+        adopters.registerMetrics(metrics);
+    }
+
+    // Runs the work in one transaction, so a row and its change log entry commit together
+    private <T> T write(Write<T> work) throws SQLException {
+        try (Connection conn = connections.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private boolean deleteRow(Connection conn, String query, String table, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, id);
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+        }
+        changeFeed.record(conn, table, id);
+        return true;
+    }
+
+    private int generatedKey(PreparedStatement stmt) throws SQLException {
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            if (!keys.next()) {
+                throw new SQLException("No generated key returned");
+            }
+            return keys.getInt(1);
+        }
+    }
+}
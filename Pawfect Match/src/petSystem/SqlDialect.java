@@ -0,0 +1,48 @@
+package petSystem;
+
+import java.sql.SQLException;
+
+// The SQL that differs between the supported databases
+public interface SqlDialect {
+
+    String getName();
+
+    String getDriverClass();
+
+    // Classpath folder holding this database's migration scripts
+    String getMigrationDirectory();
+
+    // Expression yielding the next value of a sequence inside another statement
+    String nextValue(String sequence);
+
+    // Query returning one row per reserved value of a sequence; takes the number of values as its only parameter
+    String nextValuesQuery(String sequence);
+
+    String currentTimestamp();
+
+    // True when the driver brings rows over in round-trips of the statement's fetch size
+    boolean fetchesInRoundTrips();
+
+    // Appended to a SELECT to lock its rows, waiting a bounded time for other transactions
+    String forUpdate();
+
+    // True when a CREATE failed only because the object is already there
+    boolean isAlreadyExists(SQLException e);
+
+    // True for deadlocks and lock wait timeouts, after which the transaction can simply be run again
+    boolean isRetryable(SQLException e);
+
+    boolean isUniqueViolation(SQLException e);
+
+    static SqlDialect fromConfig(DatabaseConfig config) {
+        String name = config.get("db.dialect", config.getUrl().startsWith("jdbc:h2:") ? "h2" : "oracle");
+        switch (name.toLowerCase()) {
+            case "h2":
+                return new H2Dialect();
+            case "oracle":
+                return new OracleDialect();
+            default:
+                throw new IllegalArgumentException("Unsupported db.dialect: " + name);
+        }
+    }
+}
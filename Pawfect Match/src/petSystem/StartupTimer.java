@@ -0,0 +1,51 @@
+package petSystem;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+// Startup milestones measured from JVM start. The app is interactive once the first frame has been
+// painted and the database is ready to accept a login, whichever comes last.
+public class StartupTimer {
+    public static final String FIRST_FRAME = "time-to-first-frame";
+    public static final String DATABASE_READY = "database ready";
+    public static final String INTERACTIVE = "time-to-interactive";
+    private static final Logger LOG = Logger.getLogger(StartupTimer.class.getName());
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final Map<String, Long> milestones = new LinkedHashMap<>();
+
+    // Cheap enough to call from every paint; only the first call records anything
+    public synchronized void markFirstFrame() {
+        if (mark(FIRST_FRAME) && milestones.containsKey(DATABASE_READY)) {
+            mark(INTERACTIVE);
+        }
+    }
+
+    public synchronized void markDatabaseReady() {
+        if (mark(DATABASE_READY) && milestones.containsKey(FIRST_FRAME)) {
+            mark(INTERACTIVE);
+        }
+    }
+
+    // Milliseconds from JVM start, or -1 if the milestone has not been reached
+    public synchronized long getMillis(String milestone) {
+        Long millis = milestones.get(milestone);
+        return millis == null ? -1 : millis;
+    }
+
+    public synchronized Map<String, Long> getMilestones() {
+        return new LinkedHashMap<>(milestones);
+    }
+
+    private boolean mark(String milestone) {
+        if (milestones.containsKey(milestone)) {
+            return false;
+        }
+        long elapsed = System.currentTimeMillis() - jvmStartMillis;
+        milestones.put(milestone, elapsed);
+        LOG.info("Startup: " + milestone + " " + elapsed + " ms");
+        return true;
+    }
+}
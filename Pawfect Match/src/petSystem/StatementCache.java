@@ -0,0 +1,244 @@
+package petSystem;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU of prepared statements for one pooled connection, keyed by SQL text. Closing a statement
+ * handed out by {@link #prepare} puts it back for the next caller preparing the same SQL on this
+ * connection instead of closing it, so the driver skips the round-trip and the server skips the parse.
+ * Each checkout gets its own handle; a late cancel() or close() through an old handle does nothing.
+ */
+class StatementCache {
+    // Setters whose effect outlives the checkout and must be undone before the statement is reused
+    private static final Set<String> SETTERS = Set.of("setMaxRows", "setLargeMaxRows", "setFetchSize", "setQueryTimeout", "setMaxFieldSize");
+    // Misses are mostly cold first prepares, so every so often a hit also times a throwaway prepare
+    private static final int SAMPLE_EVERY = 1024;
+
+    // Shared by the caches of all of a pool's connections
+    static final class Stats {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+        private final AtomicLong prepareNanos = new AtomicLong();
+        private final AtomicLong samples = new AtomicLong();
+        private final AtomicLong sampleNanos = new AtomicLong();
+
+        long getHits() {
+            return hits.get();
+        }
+
+        long getMisses() {
+            return misses.get();
+        }
+
+        // Each hit skipped a prepare costing about what the sampled prepares of warm statements cost
+        double getSavedMillis() {
+            return hits.get() * getWarmPrepareMillis();
+        }
+
+        private double getWarmPrepareMillis() {
+            long sampled = samples.get();
+            long prepares = misses.get();
+            if (sampled > 0) {
+                return sampleNanos.get() / 1e6 / sampled;
+            }
+            return prepares == 0 ? 0.0 : prepareNanos.get() / 1e6 / prepares;
+        }
+
+        @Override
+        public String toString() {
+            long prepares = misses.get();
+            long total = prepares + hits.get();
+            return String.format("statements: %d prepared, %d reused (%.1f%%), %d evicted, avg first prepare %.3f ms, warm prepare %.3f ms, ~%.1f ms saved",
+                    prepares, hits.get(), total == 0 ? 0.0 : 100.0 * hits.get() / total, evictions.get(),
+                    prepares == 0 ? 0.0 : prepareNanos.get() / 1e6 / prepares, getWarmPrepareMillis(), getSavedMillis());
+        }
+    }
+
+    private final Connection physical;
+    private final int maxStatements;
+    private final Stats stats;
+    private final LinkedHashMap<String, PreparedStatement> idle;
+
+    StatementCache(Connection physical, int maxStatements, Stats stats) {
+        this.physical = physical;
+        this.maxStatements = maxStatements;
+        this.stats = stats;
+        this.idle = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.maxStatements) {
+                    stats.evictions.incrementAndGet();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Handles prepareStatement(sql), prepareStatement(sql, autoGeneratedKeys) and prepareStatement(sql,
+     * columnNames); returns null for other overloads, which the caller prepares uncached.
+     */
+    PreparedStatement prepare(Connection owner, Method method, Object[] args) throws Throwable {
+        String key = keyOf(method, args);
+        if (key == null) {
+            return null;
+        }
+        PreparedStatement statement = idle.remove(key);
+        if (statement != null) {
+            if (stats.hits.incrementAndGet() % SAMPLE_EVERY == 0) {
+                sample(method, args);
+            }
+        } else {
+            long started = System.nanoTime();
+            try {
+                statement = (PreparedStatement) method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            stats.prepareNanos.addAndGet(System.nanoTime() - started);
+            stats.misses.incrementAndGet();
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new Checkout(owner, key, statement));
+    }
+
+    private void sample(Method method, Object[] args) {
+        long started = System.nanoTime();
+        try {
+            closeQuietly((PreparedStatement) method.invoke(physical, args));
+        } catch (ReflectiveOperationException e) {
+            return;
+        }
+        stats.sampleNanos.addAndGet(System.nanoTime() - started);
+        stats.samples.incrementAndGet();
+    }
+
+    private String keyOf(Method method, Object[] args) {
+        if (maxStatements <= 0 || !"prepareStatement".equals(method.getName()) || args == null || !(args[0] instanceof String)) {
+            return null;
+        }
+        if (args.length == 1) {
+            return (String) args[0];
+        }
+        if (args.length == 2 && args[1] instanceof Integer) {
+            return args[0] + "\u0000keys=" + args[1];
+        }
+        if (args.length == 2 && args[1] instanceof String[]) {
+            return args[0] + "\u0000columns=" + Arrays.toString((String[]) args[1]);
+        }
+        return null;
+    }
+
+    private void recycle(String key, PreparedStatement statement, boolean dirty) {
+        try {
+            if (statement.isClosed()) {
+                return;
+            }
+            ResultSet open = statement.getResultSet();
+            if (open != null) {
+                open.close();
+            }
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+            if (dirty) {
+                statement.setMaxRows(0);
+                statement.setFetchSize(0);
+                statement.setQueryTimeout(0);
+                statement.setMaxFieldSize(0);
+            }
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+        // A nested checkout of the same SQL may already have put one back
+        PreparedStatement previous = idle.put(key, statement);
+        if (previous != null && previous != statement) {
+            closeQuietly(previous);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // The connection is going away
+        }
+    }
+
+    private class Checkout implements InvocationHandler {
+        private final Connection owner;
+        private final String key;
+        private final PreparedStatement statement;
+        private volatile boolean closed;
+        private boolean dirty;
+
+        Checkout(Connection owner, String key, PreparedStatement statement) {
+            this.owner = owner;
+            this.key = key;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    synchronized (this) {
+                        if (closed) {
+                            return null;
+                        }
+                        closed = true;
+                    }
+                    recycle(key, statement, dirty);
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "cancel":
+                    // Comes from another thread; once closed, the statement may be serving another checkout
+                    synchronized (this) {
+                        if (!closed) {
+                            statement.cancel();
+                        }
+                    }
+                    return null;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + (closed ? "closed" : statement) + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has been closed");
+            }
+            if (SETTERS.contains(name)) {
+                dirty = true;
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
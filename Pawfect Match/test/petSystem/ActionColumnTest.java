@@ -0,0 +1,140 @@
+package petSystem;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Each click on an action button must run its handler exactly once, for the row that was clicked
+class ActionColumnTest {
+    private static final int EDIT = 0;
+    private static final int DELETE = 1;
+
+    private final List<Integer> edited = new ArrayList<>();
+    private final List<Integer> deleted = new ArrayList<>();
+    private int confirmations;
+    private JTable table;
+
+    private void createTable(int rows) {
+        createTable(rows, new ActionColumn.Action("Edit", Color.BLUE, edited::add),
+                new ActionColumn.Action("Delete", Color.RED, deleted::add));
+    }
+
+    private void createTable(int rows, ActionColumn.Action... actions) {
+        DefaultTableModel model = new DefaultTableModel(new String[]{"ID", "Name", "Actions"}, 0);
+        for (int i = 0; i < rows; i++) {
+            model.addRow(new Object[]{100 + i, "Pet " + i, null});
+        }
+        table = new JTable(model);
+        new ActionColumn(table, actions).install();
+    }
+
+    @Test
+    void repeatedClicksOnTheSameColumnRunTheHandlerOncePerClick() throws Exception {
+        onEdt(() -> {
+            createTable(3);
+            List<Integer> expected = new ArrayList<>();
+            for (int cycle = 0; cycle < 20; cycle++) {
+                int row = cycle % 3;
+                click(row, DELETE);
+                expected.add(100 + row);
+                assertEquals(expected, deleted, "after click " + (cycle + 1));
+                assertFalse(table.isEditing(), "editing stops with the click");
+            }
+            assertTrue(edited.isEmpty());
+        });
+    }
+
+    @Test
+    void editsWithoutAClickDoNotAddHandlerCalls() throws Exception {
+        onEdt(() -> {
+            createTable(3);
+            for (int row = 0; row < 3; row++) {
+                assertTrue(table.editCellAt(row, 2));
+                table.getCellEditor().cancelCellEditing();
+            }
+            click(1, DELETE);
+            assertEquals(Collections.singletonList(101), deleted);
+            click(2, EDIT);
+            assertEquals(Collections.singletonList(102), edited);
+            assertEquals(Collections.singletonList(101), deleted);
+        });
+    }
+
+    @Test
+    void sortedRowsActOnTheClickedRowsKey() throws Exception {
+        onEdt(() -> {
+            createTable(4);
+            table.setAutoCreateRowSorter(true);
+            table.getRowSorter().setSortKeys(Collections.singletonList(new RowSorter.SortKey(0, SortOrder.DESCENDING)));
+            click(0, DELETE);
+            click(3, DELETE);
+            assertEquals(List.of(103, 100), deleted);
+        });
+    }
+
+    // The app's Delete button: one confirmation and one delete per click, and none once the user says no
+    @Test
+    void deleteClickConfirmsOnceAndDeletesOnce() throws Exception {
+        onEdt(() -> {
+            boolean[] confirmed = {true};
+            createTable(3, new ActionColumn.Action("Edit", Color.BLUE, edited::add),
+                    PetAdoptionApp.deleteAction(() -> {
+                        confirmations++;
+                        return confirmed[0];
+                    }, deleted::add),
+                    new ActionColumn.Action("Adopt", Color.GREEN, id -> fail("Adopt clicked")));
+            for (int cycle = 0; cycle < 10; cycle++) {
+                click(cycle % 3, DELETE);
+                assertEquals(cycle + 1, confirmations, "confirmations after click " + (cycle + 1));
+                assertEquals(cycle + 1, deleted.size(), "deletes after click " + (cycle + 1));
+                assertEquals(100 + cycle % 3, deleted.get(cycle));
+            }
+            confirmed[0] = false;
+            click(1, DELETE);
+            assertEquals(11, confirmations);
+            assertEquals(10, deleted.size());
+            assertTrue(edited.isEmpty());
+        });
+    }
+
+    // Starts editing the action cell of a view row, as a mouse press does, and presses one of its buttons
+    private void click(int row, int action) {
+        assertTrue(table.editCellAt(row, 2));
+        JPanel buttons = (JPanel) table.getEditorComponent();
+        ((JButton) buttons.getComponent(action)).doClick(0);
+    }
+
+    private interface EdtWork {
+        void run() throws Exception;
+    }
+
+    private static void onEdt(EdtWork work) throws Exception {
+        Exception[] failure = new Exception[1];
+        try {
+            SwingUtilities.invokeAndWait(() -> {
+                try {
+                    work.run();
+                } catch (Exception e) {
+                    failure[0] = e;
+                }
+            });
+        } catch (InvocationTargetException e) {
+            // Assertion failures are errors; hand them to JUnit as they are
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+}
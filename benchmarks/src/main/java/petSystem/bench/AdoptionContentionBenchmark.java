@@ -0,0 +1,73 @@
+package petSystem.bench;
+
+import org.openjdk.jmh.annotations.*;
+import petSystem.Adoption;
+import petSystem.AdoptionService;
+import petSystem.ChangeFeed;
+import petSystem.Database;
+import petSystem.ShelterRepository;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eight desks adopting, completing and cancelling adoptions of the same pets at once. Each operation
+ * adopts a random pet, tries to complete that adoption and cancels it again when it did complete, so
+ * pets keep cycling. With few pets nearly every operation contends for a pet row lock. The teardown
+ * prints the service's counters and checks that no pet ended up with two completed adoptions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AdoptionContentionBenchmark {
+    private static final int ADOPTERS = 100;
+
+    @Param({"10", "1000"})
+    private int pets;
+
+    private Database database;
+    private AdoptionService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(10_000);
+        BenchmarkDatabase.seed(database, pets, ADOPTERS, 0);
+        ShelterRepository repository = new ShelterRepository(database, database.getDialect(), new ChangeFeed(database, database.getDialect()), 10_000, 60_000L);
+        service = new AdoptionService(database, database.getDialect(), repository, 5);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        System.out.println();
+        System.out.println(service.getStats());
+        try (Connection conn = database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM (SELECT pet_id FROM Adoptions WHERE status = 'Completed' "
+                     + "GROUP BY pet_id HAVING COUNT(*) > 1) t")) {
+            rs.next();
+            System.out.println("Pets with more than one completed adoption: " + rs.getInt(1));
+        }
+        BenchmarkDatabase.close(database);
+    }
+
+    @Benchmark
+    public boolean adoptCompleteCancel() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Adoption adoption = service.adopt(1 + random.nextInt(pets), 1 + random.nextInt(ADOPTERS));
+        if (adoption == null) {
+            return false;
+        }
+        if (service.updateStatus(adoption.getId(), "Completed") == null) {
+            return false;
+        }
+        return service.updateStatus(adoption.getId(), "Cancelled") != null;
+    }
+}
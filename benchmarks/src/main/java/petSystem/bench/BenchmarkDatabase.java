@@ -0,0 +1,91 @@
+package petSystem.bench;
+
+import petSystem.Database;
+import petSystem.DatabaseConfig;
+import petSystem.SqlDialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Throwaway in-memory H2 databases with the application schema, seeded with synthetic shelter data
+final class BenchmarkDatabase {
+    private static final String[] SPECIES = {"Dog", "Cat", "Rabbit", "Parrot", "Hamster"};
+    private static final String[] STATUSES = {"Pending", "Approved", "Completed"};
+    private static final int CHUNK_SIZE = 1000;
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private BenchmarkDatabase() {
+    }
+
+    static Database open(int cacheMaxEntries) throws Exception {
+        return open(cacheMaxEntries, 64);
+    }
+
+    static Database open(int cacheMaxEntries, int statementCacheSize) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "jdbc:h2:mem:bench" + counter.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        properties.setProperty("db.user", "sa");
+        properties.setProperty("db.password", "sa");
+        properties.setProperty("cache.maxEntries", String.valueOf(cacheMaxEntries));
+        properties.setProperty("pool.statementCacheSize", String.valueOf(statementCacheSize));
+        return Database.open(DatabaseConfig.of(properties));
+    }
+
+    // Ids come from fresh sequences, so pets and adopters are numbered 1..n
+    static void seed(Database database, int pets, int adopters, int adoptions) throws SQLException {
+        SqlDialect dialect = database.getDialect();
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            insert(conn, "INSERT INTO Pets (pet_id, pet_name, species, age) VALUES (" + dialect.nextValue("pet_seq") + ", ?, ?, ?)",
+                    pets, (stmt, i) -> {
+                        stmt.setString(1, "Pet " + i);
+                        stmt.setString(2, SPECIES[i % SPECIES.length]);
+                        stmt.setInt(3, 1 + i % 15);
+                    });
+            insert(conn, "INSERT INTO Adopters (adopter_id, first_name, last_name, phone) VALUES (" + dialect.nextValue("adopter_seq") + ", ?, ?, ?)",
+                    adopters, (stmt, i) -> {
+                        stmt.setString(1, "First" + i);
+                        stmt.setString(2, "Last" + i);
+                        stmt.setString(3, String.format("555%07d", i));
+                    });
+            insert(conn, "INSERT INTO Adoptions (adoption_id, adopter_id, pet_id, adoption_date, status) VALUES ("
+                            + dialect.nextValue("adoption_seq") + ", ?, ?, " + dialect.currentTimestamp() + ", ?)",
+                    adoptions, (stmt, i) -> {
+                        stmt.setInt(1, 1 + i % adopters);
+                        stmt.setInt(2, 1 + i % pets);
+                        stmt.setString(3, STATUSES[i % STATUSES.length]);
+                    });
+        }
+    }
+
+    static void close(Database database) {
+        try (Connection conn = database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        database.close();
+    }
+
+    private interface Binder {
+        void bind(PreparedStatement stmt, int i) throws SQLException;
+    }
+
+    private static void insert(Connection conn, String sql, int count, Binder binder) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++) {
+                binder.bind(stmt, i);
+                stmt.addBatch();
+                if ((i + 1) % CHUNK_SIZE == 0 || i == count - 1) {
+                    stmt.executeBatch();
+                    conn.commit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package petSystem.bench;
+
+import org.openjdk.jmh.annotations.*;
+import petSystem.AdoptionService;
+import petSystem.ChangeFeed;
+import petSystem.Database;
+import petSystem.ShelterRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Changing the status of a multi-row selection on the Status tab, either one transaction per adoption
+ * as the single-row path does, or as one batched transaction. Each invocation flips the selection
+ * between Pending and Cancelled so every run writes the same number of rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BulkStatusBenchmark {
+    private static final int PETS = 10_000;
+    private static final int ADOPTERS = 1_000;
+    private static final int ADOPTIONS = 30_000;
+
+    @Param({"10", "200"})
+    private int selected;
+
+    private Database database;
+    private AdoptionService service;
+    private List<Integer> adoptionIds;
+    private boolean cancelled;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(10_000);
+        BenchmarkDatabase.seed(database, PETS, ADOPTERS, ADOPTIONS);
+        ShelterRepository repository = new ShelterRepository(database, database.getDialect(), new ChangeFeed(database, database.getDialect()), 10_000, 60_000L);
+        service = new AdoptionService(database, database.getDialect(), repository, 5);
+        // Every third seeded adoption starts out Pending, spread over the whole table
+        adoptionIds = new ArrayList<>();
+        for (int i = 0; i < selected; i++) {
+            adoptionIds.add(1 + i * (ADOPTIONS / selected / 3) * 3);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.close(database);
+    }
+
+    @Benchmark
+    public int oneTransactionPerRow() throws SQLException {
+        String status = nextStatus();
+        int updated = 0;
+        for (int adoptionId : adoptionIds) {
+            if (service.updateStatus(adoptionId, status) != null) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    @Benchmark
+    public int batched() throws SQLException {
+        return service.updateStatuses(adoptionIds, nextStatus()).size();
+    }
+
+    private String nextStatus() {
+        cancelled = !cancelled;
+        return cancelled ? "Cancelled" : "Pending";
+    }
+}
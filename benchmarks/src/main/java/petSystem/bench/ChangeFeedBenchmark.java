@@ -0,0 +1,66 @@
+package petSystem.bench;
+
+import org.openjdk.jmh.annotations.*;
+import petSystem.ChangeFeed;
+import petSystem.Database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One poll of the change log as a workstation runs it every couple of seconds, after another workstation
+ * changed the given number of rows. With no changes a poll is a single index range scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ChangeFeedBenchmark {
+    @Param({"0", "10", "500"})
+    private int changedRows;
+
+    private Database database;
+    private ChangeFeed writer;
+    private ChangeFeed reader;
+    private int[] rowIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(10_000);
+        writer = new ChangeFeed(database, database.getDialect());
+        reader = new ChangeFeed(database, database.getDialect());
+        // A log that has been collecting changes for a while
+        try (Connection conn = database.getConnection()) {
+            for (int i = 0; i < 100; i++) {
+                writer.record(conn, ChangeFeed.PETS, new int[1000]);
+            }
+        }
+        reader.poll();
+        rowIds = new int[changedRows];
+        for (int i = 0; i < changedRows; i++) {
+            rowIds[i] = i + 1;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.close(database);
+    }
+
+    @Setup(Level.Invocation)
+    public void change() throws SQLException {
+        if (changedRows > 0) {
+            try (Connection conn = database.getConnection()) {
+                writer.record(conn, ChangeFeed.PETS, rowIds);
+            }
+        }
+    }
+
+    @Benchmark
+    public ChangeFeed.Changes poll() throws SQLException {
+        return reader.poll();
+    }
+}
@@ -0,0 +1,66 @@
+package petSystem.bench;
+
+import org.openjdk.jmh.annotations.*;
+import petSystem.ChangeFeed;
+import petSystem.Database;
+import petSystem.ShelterRepository;
+
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pet/adopter existence checks run before every adoption, with the entity cache
+ * disabled (cacheEntries=0) and enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExistenceCheckBenchmark {
+    private static final int PETS = 5000;
+    private static final int ADOPTERS = 5000;
+
+    @Param({"0", "10000"})
+    private int cacheEntries;
+
+    private Database database;
+    private ShelterRepository repository;
+    private final int[] ids = new int[4096];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(cacheEntries);
+        BenchmarkDatabase.seed(database, PETS, ADOPTERS, PETS / 2);
+        repository = new ShelterRepository(database, database.getDialect(), new ChangeFeed(database, database.getDialect()), cacheEntries, 60_000L);
+        Random random = new Random(42);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 1 + random.nextInt(Math.min(PETS, ADOPTERS));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.close(database);
+    }
+
+    @Benchmark
+    public boolean petExists() throws SQLException {
+        return repository.findPet(nextId()) != null;
+    }
+
+    @Benchmark
+    public boolean petAndAdopterExist() throws SQLException {
+        int id = nextId();
+        return repository.findPet(id) != null && repository.findAdopter(id) != null;
+    }
+
+    private int nextId() {
+        int id = ids[next];
+        next = (next + 1) & (ids.length - 1);
+        return id;
+    }
+}
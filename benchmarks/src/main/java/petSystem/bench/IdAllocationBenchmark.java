@@ -0,0 +1,157 @@
+package petSystem.bench;
+
+import petSystem.BlockIdAllocator;
+import petSystem.ConnectionPool;
+import petSystem.DatabaseConfig;
+import petSystem.IdAllocator;
+import petSystem.SequenceIdAllocator;
+import petSystem.SqlDialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Insert throughput of the id allocation strategies under N concurrent clients.
+ * Works on its own scratch table and sequences, which are dropped afterwards.
+ *
+ * Usage: IdAllocationBenchmark [clients] [rowsPerClient] [blockSize]
+ * Connection settings come from pawfect.properties, as for the application.
+ */
+public class IdAllocationBenchmark {
+
+    private interface Strategy {
+        String name();
+
+        PreparedStatement prepare(Connection conn) throws SQLException;
+
+        // Binds the id, if the statement takes one, and returns the index of the label parameter
+        int bindId(Connection conn, PreparedStatement stmt) throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int rowsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int blockSize = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+
+        System.setProperty("pawfect.pool.maxSize", String.valueOf(clients + 1));
+        DatabaseConfig config = DatabaseConfig.load();
+        SqlDialect dialect = SqlDialect.fromConfig(config);
+        Class.forName(config.get("db.driver", dialect.getDriverClass()));
+        try (ConnectionPool pool = new ConnectionPool(config)) {
+            setUp(pool);
+            try {
+                IdAllocator perId = new SequenceIdAllocator(dialect);
+                IdAllocator block = new BlockIdAllocator(dialect, blockSize);
+                List<Strategy> strategies = new ArrayList<>();
+                strategies.add(inline("inline NEXTVAL, NOCACHE", dialect.nextValue("bench_nocache_seq")));
+                strategies.add(inline("inline NEXTVAL, CACHE 100", dialect.nextValue("bench_cache_seq")));
+                strategies.add(bound("one NEXTVAL query per id", perId, "bench_cache_seq"));
+                strategies.add(bound("block of " + blockSize + " per round-trip", block, "bench_cache_seq"));
+
+                System.out.printf("%d clients x %d rows%n", clients, rowsPerClient);
+                for (Strategy strategy : strategies) {
+                    run(pool, strategy, clients, Math.min(rowsPerClient, 200));
+                    double rowsPerSecond = run(pool, strategy, clients, rowsPerClient);
+                    System.out.printf("%-32s %10.0f rows/s%n", strategy.name(), rowsPerSecond);
+                }
+            } finally {
+                tearDown(pool);
+            }
+        }
+    }
+
+    private static double run(ConnectionPool pool, Strategy strategy, int clients, int rowsPerClient) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int c = 0; c < clients; c++) {
+                results.add(threads.submit(() -> {
+                    try (Connection conn = pool.getConnection();
+                         PreparedStatement stmt = strategy.prepare(conn)) {
+                        start.await();
+                        for (int i = 0; i < rowsPerClient; i++) {
+                            stmt.setString(strategy.bindId(conn, stmt), "row " + i);
+                            stmt.executeUpdate();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+            double seconds = (System.nanoTime() - began) / 1e9;
+            return clients * (double) rowsPerClient / seconds;
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static Strategy inline(String name, String nextValue) {
+        return new Strategy() {
+            public String name() {
+                return name;
+            }
+
+            public PreparedStatement prepare(Connection conn) throws SQLException {
+                return conn.prepareStatement("INSERT INTO id_bench (id, label) VALUES (" + nextValue + ", ?)");
+            }
+
+            public int bindId(Connection conn, PreparedStatement stmt) {
+                return 1;
+            }
+        };
+    }
+
+    private static Strategy bound(String name, IdAllocator allocator, String sequence) {
+        return new Strategy() {
+            public String name() {
+                return name;
+            }
+
+            public PreparedStatement prepare(Connection conn) throws SQLException {
+                return conn.prepareStatement("INSERT INTO id_bench (id, label) VALUES (?, ?)");
+            }
+
+            public int bindId(Connection conn, PreparedStatement stmt) throws SQLException {
+                stmt.setInt(1, allocator.nextId(conn, sequence));
+                return 2;
+            }
+        };
+    }
+
+    private static void setUp(ConnectionPool pool) throws SQLException {
+        tearDown(pool);
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE SEQUENCE bench_nocache_seq START WITH 1 NOCACHE");
+            // Start far above the other sequence so both can share the scratch table's primary key
+            stmt.execute("CREATE SEQUENCE bench_cache_seq START WITH 1000000000 CACHE 100");
+            stmt.execute("CREATE TABLE id_bench (id INTEGER PRIMARY KEY, label VARCHAR(50))");
+        }
+    }
+
+    private static void tearDown(ConnectionPool pool) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String sql : new String[]{"DROP TABLE id_bench", "DROP SEQUENCE bench_nocache_seq", "DROP SEQUENCE bench_cache_seq"}) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException ignored) {
+                    // Not there yet
+                }
+            }
+        }
+    }
+}
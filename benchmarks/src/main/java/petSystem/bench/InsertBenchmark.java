@@ -0,0 +1,80 @@
+package petSystem.bench;
+
+import org.openjdk.jmh.annotations.*;
+import petSystem.BulkTransfer;
+import petSystem.ChangeFeed;
+import petSystem.Database;
+import petSystem.IdAllocator;
+import petSystem.ShelterRepository;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per pet of adding rows one statement and commit at a time, as the Pets form does,
+ * against the batched CSV import.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class InsertBenchmark {
+    private static final int ROWS = 1000;
+
+    private Database database;
+    private ShelterRepository repository;
+    private BulkTransfer bulkTransfer;
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(10_000);
+        ChangeFeed changeFeed = new ChangeFeed(database, database.getDialect());
+        repository = new ShelterRepository(database, database.getDialect(), changeFeed, 10_000, 60_000L);
+        bulkTransfer = new BulkTransfer(database, database.getDialect(), changeFeed, 500,
+                IdAllocator.fromConfig(database.getConfig(), database.getDialect()));
+        csv = Files.createTempFile("pets", ".csv");
+        try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+            out.write("pet_name,species,age\r\n");
+            for (int i = 0; i < ROWS; i++) {
+                out.write("Pet " + i + ",Dog," + (1 + i % 15) + "\r\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearPets() throws SQLException {
+        try (Connection conn = database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM Pets");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(csv);
+        BenchmarkDatabase.close(database);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void singleInserts() throws SQLException {
+        for (int i = 0; i < ROWS; i++) {
+            repository.addPet("Pet " + i, "Dog", 1 + i % 15);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int batchedImport() throws Exception {
+        return bulkTransfer.importPets(csv, (bytesRead, totalBytes) -> {
+        }).getImported();
+    }
+}
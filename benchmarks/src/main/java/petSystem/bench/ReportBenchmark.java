@@ -0,0 +1,80 @@
+package petSystem.bench;
+
+import org.openjdk.jmh.annotations.*;
+import petSystem.Database;
+import petSystem.ReportService;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the Reports tab's figures from the Adoption_Stats aggregates, against grouping the adoptions
+ * joined to their pets on every read. The seeded adoptions are spread over three years so there are
+ * months as well as species and statuses to group by.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ReportBenchmark {
+    // The parameter matches every row; a new value each time keeps H2 from answering from its cached result
+    private static final String GROUP_ADOPTIONS = "SELECT p.species, CAST(DATE_TRUNC('MONTH', a.adoption_date) AS DATE), a.status, COUNT(*),"
+            + " COUNT(a.completed_at), SUM(DATEDIFF('SECOND', a.adoption_date, a.completed_at))"
+            + " FROM Adoptions a JOIN Pets p ON p.pet_id = a.pet_id WHERE a.adoption_id > ? GROUP BY p.species, CAST(DATE_TRUNC('MONTH', a.adoption_date) AS DATE), a.status";
+    // Seeded adoptions have no completion times
+    private static final String BUILD_STATS = "INSERT INTO Adoption_Stats (species, adoption_month, status, adoptions, timed_completions, completion_seconds)"
+            + " SELECT p.species, CAST(DATE_TRUNC('MONTH', a.adoption_date) AS DATE), a.status, COUNT(*), 0, 0"
+            + " FROM Adoptions a JOIN Pets p ON p.pet_id = a.pet_id GROUP BY p.species, CAST(DATE_TRUNC('MONTH', a.adoption_date) AS DATE), a.status";
+
+    @Param({"10000", "1000000"})
+    private int adoptions;
+
+    private Database database;
+    private ReportService reports;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(0);
+        BenchmarkDatabase.seed(database, 100_000, 10_000, adoptions);
+        // The seed bypasses AdoptionService, so the aggregates are built here the way the migration builds them
+        try (Connection conn = database.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE Adoptions SET adoption_date = DATEADD('DAY', -MOD(adoption_id, 1095), adoption_date)");
+            stmt.execute("DELETE FROM Adoption_Stats");
+            stmt.execute(BUILD_STATS);
+        }
+        reports = new ReportService(database);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.close(database);
+    }
+
+    @Benchmark
+    public ReportService.Report aggregateTable() throws SQLException {
+        return reports.load();
+    }
+
+    @Benchmark
+    public long groupByAdoptions() throws SQLException {
+        long total = 0;
+        try (Connection conn = database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(GROUP_ADOPTIONS)) {
+            stmt.setInt(1, -1 - (invocation++ & 1023));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    total += rs.getLong(4);
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,65 @@
+package petSystem.bench;
+
+import org.openjdk.jmh.annotations.*;
+import petSystem.DataAccessExecutor;
+import petSystem.Database;
+import petSystem.PagedTableModel;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelListener;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to turn a pets query into table rows: the model loads all rows as a single page,
+ * from the query on a worker thread until the rows are visible on the EDT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ResultSetToModelBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private Database database;
+    private DataAccessExecutor executor;
+    private PagedTableModel model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(0);
+        BenchmarkDatabase.seed(database, rows, 0, 0);
+        executor = new DataAccessExecutor(4);
+        model = new PagedTableModel("pets", "pets", executor, database, database.getDialect(),
+                "SELECT p.pet_id, p.pet_name, p.species, p.age FROM Pets p", null,
+                "p.pet_id", new String[]{"PET_ID", "PET_NAME", "SPECIES", "AGE"}, null, rows, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+        BenchmarkDatabase.close(database);
+    }
+
+    @Benchmark
+    public int loadAllRows() throws Exception {
+        CountDownLatch loaded = new CountDownLatch(1);
+        TableModelListener listener = e -> {
+            // The count query may land first; the rows are in once the last one has a value
+            if (model.getRowCount() >= rows && model.getValueAt(rows - 1, 0) != null) {
+                loaded.countDown();
+            }
+        };
+        SwingUtilities.invokeAndWait(() -> {
+            model.addTableModelListener(listener);
+            model.reload();
+        });
+        loaded.await();
+        SwingUtilities.invokeAndWait(() -> model.removeTableModelListener(listener));
+        return rows;
+    }
+}
@@ -0,0 +1,82 @@
+package petSystem.bench;
+
+import org.openjdk.jmh.annotations.*;
+import petSystem.DataAccessExecutor;
+import petSystem.Database;
+import petSystem.PagedTableModel;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from a search or sort change on the Pets list until its first page is on the EDT,
+ * with the Pets tab's own query, filter and sort expressions over a million pets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SearchBenchmark {
+    private static final int PETS = 1_000_000;
+
+    @Param({"namePrefix", "speciesAndAge", "sortByName", "sortByAgeDescending"})
+    private String search;
+
+    private Database database;
+    private DataAccessExecutor executor;
+    private PagedTableModel model;
+    private volatile CountDownLatch firstPageLoaded;
+    private int variant;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(0);
+        BenchmarkDatabase.seed(database, PETS, 1000, 100_000);
+        executor = new DataAccessExecutor(4);
+        model = new PagedTableModel("pets", "pets", executor, database, database.getDialect(),
+                "SELECT p.pet_id, p.pet_name, p.species, p.age FROM Pets p",
+                "p.deleted_at IS NULL AND NOT EXISTS (SELECT 1 FROM Adoptions a WHERE a.pet_id = p.pet_id AND a.status = 'Completed')",
+                "p.pet_id", new String[]{"PET_ID", "PET_NAME", "SPECIES", "AGE"}, "Actions", 200, 20);
+        model.setSortExpressions("p.pet_id", "p.pet_name", "p.species", "p.age");
+        SwingUtilities.invokeAndWait(() -> model.addTableModelListener(e -> {
+            CountDownLatch latch = firstPageLoaded;
+            if (latch != null && model.getRowCount() > 0 && model.getValueAt(0, 0) != null) {
+                latch.countDown();
+            }
+        }));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        BenchmarkDatabase.close(database);
+    }
+
+    @Benchmark
+    public void firstPage() throws Exception {
+        // Alternate between two variants so every call is a real change that reaches the database
+        int flip = variant++ & 1;
+        firstPageLoaded = new CountDownLatch(1);
+        SwingUtilities.invokeAndWait(() -> {
+            switch (search) {
+                case "namePrefix":
+                    model.setSearch("p.pet_name_key LIKE ? ESCAPE '\\'", flip == 0 ? "PET 1234%" : "PET 98%");
+                    break;
+                case "speciesAndAge":
+                    model.setSearch("p.species = ? AND p.age >= ? AND p.age <= ?", flip == 0 ? "Cat" : "Dog", 1, 7);
+                    break;
+                case "sortByName":
+                    model.setSort(1, flip == 0);
+                    break;
+                default:
+                    model.setSort(flip == 0 ? 3 : 2, false);
+                    break;
+            }
+        });
+        firstPageLoaded.await();
+    }
+}
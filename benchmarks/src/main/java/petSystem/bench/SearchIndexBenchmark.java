@@ -0,0 +1,90 @@
+package petSystem.bench;
+
+import org.openjdk.jmh.annotations.*;
+import petSystem.SearchIndex;
+import petSystem.ShelterRepository;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in the in-memory adopter index as the Adopters tab's search boxes issue them: a name prefix,
+ * a name with a typo, first and last name together, and the middle digits of a phone number.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SearchIndexBenchmark {
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+            "Christopher", "Lisa", "Daniel", "Nancy", "Matthew", "Betty", "Anthony", "Margaret", "Mark", "Sandra"};
+    private static final String[] SYLLABLES = {
+            "an", "ber", "cal", "don", "el", "fer", "gan", "har", "is", "jen", "kin", "lor", "mac", "nel", "or",
+            "pet", "quin", "ros", "son", "tay", "ul", "van", "wil", "xan", "yor", "zel", "ham", "ley", "ton", "field"};
+
+    @Param({"10000", "100000"})
+    private int adopters;
+
+    @Param({"prefix", "typo", "fullName", "phone"})
+    private String query;
+
+    private SearchIndex index;
+    private String[] queries;
+    private int[] fields;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new SearchIndex(SearchIndex.TermKind.WORDS, SearchIndex.TermKind.WORDS, SearchIndex.TermKind.DIGITS);
+        Random random = new Random(42);
+        String[] lastNames = new String[adopters];
+        String[] phones = new String[adopters];
+        index.beginLoad();
+        for (int i = 0; i < adopters; i++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            lastNames[i] = capitalize(SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]
+                    + SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            phones[i] = String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10000));
+            index.load(i + 1, firstName, lastNames[i], phones[i]);
+        }
+        index.finishLoad();
+
+        queries = new String[256];
+        for (int i = 0; i < queries.length; i++) {
+            int row = random.nextInt(adopters);
+            String lastName = lastNames[row];
+            switch (query) {
+                case "prefix":
+                    queries[i] = lastName.substring(0, 4);
+                    break;
+                case "typo":
+                    // Swap two neighbouring letters in the middle of the name
+                    int at = lastName.length() / 2;
+                    queries[i] = lastName.substring(0, at - 1) + lastName.charAt(at) + lastName.charAt(at - 1) + lastName.substring(at + 1);
+                    break;
+                case "fullName":
+                    queries[i] = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)].substring(0, 3) + " " + lastName.substring(0, 5);
+                    break;
+                default:
+                    queries[i] = phones[row].substring(4, 11);
+                    break;
+            }
+        }
+        fields = "phone".equals(query)
+                ? new int[]{ShelterRepository.ADOPTER_PHONE_FIELD}
+                : new int[]{ShelterRepository.ADOPTER_FIRST_NAME_FIELD, ShelterRepository.ADOPTER_LAST_NAME_FIELD};
+    }
+
+    @Benchmark
+    public int[] search() {
+        return index.search(queries[next++ & (queries.length - 1)], 500, fields);
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
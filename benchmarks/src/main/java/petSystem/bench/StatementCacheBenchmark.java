@@ -0,0 +1,62 @@
+package petSystem.bench;
+
+import org.openjdk.jmh.annotations.*;
+import petSystem.AdoptionService;
+import petSystem.ChangeFeed;
+import petSystem.Database;
+import petSystem.ShelterRepository;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository lookups and an adoption status change with the pool's statement cache on and off. The entity
+ * cache is disabled so every lookup reaches the database and prepares its statement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StatementCacheBenchmark {
+    private static final int PETS = 10_000;
+    private static final int ADOPTERS = 1_000;
+    private static final int ADOPTIONS = 3_000;
+
+    @Param({"0", "64"})
+    private int statementCacheSize;
+
+    private Database database;
+    private ShelterRepository repository;
+    private AdoptionService service;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(0, statementCacheSize);
+        BenchmarkDatabase.seed(database, PETS, ADOPTERS, ADOPTIONS);
+        repository = new ShelterRepository(database, database.getDialect(), new ChangeFeed(database, database.getDialect()), 0, 60_000L);
+        service = new AdoptionService(database, database.getDialect(), repository, 5);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println();
+        System.out.println(database.getPool().getStats());
+        BenchmarkDatabase.close(database);
+    }
+
+    @Benchmark
+    public boolean findPetAndAdopter() throws SQLException {
+        int i = next++;
+        return repository.findPet(1 + i % PETS) != null && repository.findAdopter(1 + i % ADOPTERS) != null;
+    }
+
+    // Every third seeded adoption is Pending; flipping it to Cancelled and back never completes a pet
+    @Benchmark
+    public Object updateStatus() throws SQLException {
+        int i = next++;
+        return service.updateStatus(1 + (i % (ADOPTIONS / 3)) * 3, (i / (ADOPTIONS / 3)) % 2 == 0 ? "Cancelled" : "Pending");
+    }
+}
@@ -0,0 +1,107 @@
+package petSystem.bench;
+
+import org.openjdk.jmh.annotations.*;
+import petSystem.DataAccessExecutor;
+import petSystem.Database;
+import petSystem.PagedTableModel;
+
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost on the EDT of applying one change to a fully cached pets table that has a JTable attached,
+ * compared with reloading it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = {"-Djava.awt.headless=true"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TableModelUpdateBenchmark {
+    // Leaves the last page part-filled so rows can be appended to it
+    private static final int ROWS = 10_100;
+    private static final int PAGE_SIZE = 200;
+
+    private Database database;
+    private DataAccessExecutor executor;
+    private PagedTableModel model;
+    private PagedTableModel reloadModel;
+    private JTable table;
+    private JTable reloadTable;
+    private volatile CountDownLatch firstPageLoaded;
+    private int nextKey;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(0);
+        BenchmarkDatabase.seed(database, ROWS, 0, 0);
+        executor = new DataAccessExecutor(4);
+        model = new PagedTableModel("pets", "pets", executor, database, database.getDialect(),
+                "SELECT p.pet_id, p.pet_name, p.species, p.age FROM Pets p", null,
+                "p.pet_id", new String[]{"PET_ID", "PET_NAME", "SPECIES", "AGE"}, null, PAGE_SIZE, ROWS / PAGE_SIZE + 1);
+        reloadModel = new PagedTableModel("reload", "reload", executor, database, database.getDialect(),
+                "SELECT p.pet_id, p.pet_name, p.species, p.age FROM Pets p", null,
+                "p.pet_id", new String[]{"PET_ID", "PET_NAME", "SPECIES", "AGE"}, null, PAGE_SIZE, ROWS / PAGE_SIZE + 1);
+        SwingUtilities.invokeAndWait(() -> {
+            table = new JTable(model);
+            reloadTable = new JTable(reloadModel);
+            reloadModel.addTableModelListener(e -> {
+                if (reloadModel.getRowCount() > 0 && reloadModel.getValueAt(0, 0) != null) {
+                    firstPageLoaded.countDown();
+                }
+            });
+            model.reload();
+        });
+        awaitFullyCached();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+        BenchmarkDatabase.close(database);
+    }
+
+    @Benchmark
+    public void updateRow() throws Exception {
+        int key = 1 + (nextKey++ % ROWS);
+        SwingUtilities.invokeAndWait(() -> model.upsertRow(new Object[]{key, "Renamed " + key, "Dog", 4}));
+    }
+
+    @Benchmark
+    public void insertAndDeleteRow() throws Exception {
+        int key = ROWS + 1;
+        SwingUtilities.invokeAndWait(() -> {
+            model.upsertRow(new Object[]{key, "New pet", "Cat", 1});
+            model.deleteRow(key);
+        });
+    }
+
+    // What every change cost before rows were applied in place: drop everything and wait for the first page
+    @Benchmark
+    public void reloadFirstPage() throws Exception {
+        firstPageLoaded = new CountDownLatch(1);
+        SwingUtilities.invokeAndWait(() -> reloadModel.reload());
+        firstPageLoaded.await();
+    }
+
+    private void awaitFullyCached() throws Exception {
+        while (true) {
+            boolean[] complete = new boolean[1];
+            SwingUtilities.invokeAndWait(() -> {
+                complete[0] = model.getRowCount() == ROWS;
+                for (int row = 0; row < model.getRowCount(); row += PAGE_SIZE) {
+                    if (model.getValueAt(row, 0) == null) {
+                        complete[0] = false;
+                    }
+                }
+            });
+            if (complete[0]) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+    }
+}